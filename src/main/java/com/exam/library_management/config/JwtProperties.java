@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @Component
@@ -13,4 +15,35 @@ public class JwtProperties {
 
     private String secret;
     private long expiration;
+
+    // Authenticate from the token's uid/role claims alone; role changes apply at the next login.
+    private boolean statelessAuth = true;
+
+    private TokenCache tokenCache = new TokenCache();
+    private UserCache userCache = new UserCache();
+
+    @Getter
+    @Setter
+    public static class TokenCache {
+
+        // Skip signature checks for tokens already verified by this instance.
+        private boolean enabled = true;
+
+        // Distinct tokens remembered; least recently used ones are dropped first.
+        private long maxSize = 10_000;
+
+        // Entries never outlive the token's exp claim, and are re-verified at least this often.
+        private Duration maxTtl = Duration.ofMinutes(15);
+    }
+
+    @Getter
+    @Setter
+    public static class UserCache {
+
+        // Users remembered for tokens that still need a database-backed principal.
+        private long maxSize = 10_000;
+
+        // Upper bound on how stale a cached user can be when no change event reached this instance.
+        private Duration ttl = Duration.ofMinutes(5);
+    }
 }
@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @Component
@@ -13,4 +15,121 @@ public class LibraryProperties {
 
     private int borrowDurationDays;
     private int lateFeePerDay;
+    private Catalog catalog = new Catalog();
+    private AvailabilityStream availabilityStream = new AvailabilityStream();
+    private BorrowAdmission borrowAdmission = new BorrowAdmission();
+    private Holds holds = new Holds();
+    private BorrowBatch borrowBatch = new BorrowBatch();
+    private PasswordHashing passwordHashing = new PasswordHashing();
+    private LoginThrottle loginThrottle = new LoginThrottle();
+    private ReportBackfill reportBackfill = new ReportBackfill();
+
+    @Getter
+    @Setter
+    public static class Catalog {
+
+        // Upper bound for keyset page sizes; larger requests are clamped.
+        private int maxPageSize = 100;
+
+        // Rows per JDBC batch (and per transaction) for the bulk import endpoint.
+        private int importBatchSize = 500;
+
+        // Entries kept by the change feed after per-book compaction; older clients must resync.
+        private int changeLogCapacity = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class AvailabilityStream {
+
+        // Server closes the SSE connection after this; EventSource clients reconnect on their own.
+        private Duration timeout = Duration.ofMinutes(30);
+
+        // Threads draining subscriber backlogs. A stalled socket holds one for up to write-timeout.
+        private int workers = 4;
+
+        // Longest a single event write may block before the subscriber is dropped.
+        private Duration writeTimeout = Duration.ofSeconds(5);
+
+        // Threads doing socket writes. A stalled client pins one until the container's socket
+        // timeout; once all are pinned, further writes are refused and their subscribers dropped.
+        private int writeThreads = 16;
+
+        // Distinct books buffered per subscriber before it is told to resync instead.
+        private int maxPending = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class BorrowAdmission {
+
+        // Longest a borrow request queues for its book before it is turned away with 503.
+        private Duration maxWait = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Holds {
+
+        // How long a returned book stays RESERVED for the head of its waitlist.
+        private Duration pickupWindow = Duration.ofHours(48);
+
+        // Books whose waitlist is kept in memory; the least recently used are dropped past this.
+        private long queueCacheSize = 10_000;
+
+        // Longest a cached waitlist is served before it is read again, even without a change event.
+        private Duration queueCacheTtl = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class BorrowBatch {
+
+        // Items per transaction for the batch borrow/return endpoints.
+        private int chunkSize = 500;
+
+        // Larger requests are rejected outright rather than clamped.
+        private int maxItems = 5_000;
+    }
+
+    @Getter
+    @Setter
+    public static class PasswordHashing {
+
+        // Threads hashing passwords; at most this many cores go to login and registration.
+        private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        // Hashes waiting for a thread; callers beyond this get 503 straight away.
+        private int queueCapacity = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class LoginThrottle {
+
+        private boolean enabled = true;
+
+        // Attempts are counted over a window of this length that slides with each request.
+        private Duration window = Duration.ofMinutes(1);
+
+        // Attempts allowed per window for one username; a successful login clears its count.
+        private int maxAttemptsPerUsername = 10;
+
+        // Attempts allowed per window from one client address, whatever the username.
+        private int maxAttemptsPerAddress = 60;
+
+        // Usernames and addresses remembered at once; the least recently seen are dropped.
+        private long maxTrackedKeys = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class ReportBackfill {
+
+        // Months built at once; each holds one database connection while it runs.
+        private int workers = 4;
+
+        // Widest range one backfill may cover; ten years by default.
+        private int maxMonths = 120;
+    }
 }
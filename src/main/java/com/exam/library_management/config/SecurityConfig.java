@@ -1,11 +1,15 @@
 package com.exam.library_management.config;
 
+import com.exam.library_management.security.BoundedPasswordEncoder;
 import com.exam.library_management.security.CustomUserDetailsService;
 import com.exam.library_management.security.JwtAuthenticationFilter;
-import com.exam.library_management.security.JwtUtil;
+import com.exam.library_management.security.UserDetailsCache;
+import com.exam.library_management.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -13,6 +17,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
@@ -22,15 +27,28 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(LibraryProperties libraryProperties, MeterRegistry meterRegistry) {
+        // BCrypt runs on its own bounded pool instead of the request threads.
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(),
+                libraryProperties.getPasswordHashing(), meterRegistry);
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(
-            JwtUtil jwtUtil,
-            CustomUserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+            VerifiedTokenCache tokenCache,
+            UserDetailsCache userDetailsCache,
+            JwtProperties jwtProperties) {
+        return new JwtAuthenticationFilter(tokenCache, userDetailsCache, jwtProperties.isStatelessAuth());
+    }
+
+    // Explicit because two UserDetailsService beans exist; login must check the uncached record.
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(
+            CustomUserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
     }
 
     @Bean
@@ -57,12 +75,16 @@ public class SecurityConfig {
                 )
             )
             .authorizeHttpRequests(auth -> auth
+                    // Completion dispatch of streamed responses; the original request was already authorized.
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers(
                             "/v3/api-docs/**",
                             "/swagger-ui/**",
                             "/swagger-ui.html"
                     ).permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .requestMatchers("/api/admin/**").hasRole("ADMIN")
                     .requestMatchers("/api/user/**").hasRole("USER")
                     .anyRequest().authenticated()
@@ -1,8 +1,12 @@
 package com.exam.library_management.controller;
 
-import com.exam.library_management.entity.BorrowRecord;
 import com.exam.library_management.dto.ApiResponse;
+import com.exam.library_management.dto.BorrowBatchRequest;
+import com.exam.library_management.dto.BorrowBatchResult;
+import com.exam.library_management.dto.BorrowRecordResponse;
 import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.service.BorrowBatchService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -16,13 +20,33 @@ import java.util.List;
 public class AdminBorrowController {
 
     private final BorrowRecordRepository repository;
+    private final BorrowBatchService borrowBatchService;
 
     @GetMapping
-    public ApiResponse<List<BorrowRecord>> all() {
+    public ApiResponse<List<BorrowRecordResponse>> all() {
         return new ApiResponse<>(
                 true,
                 "Borrow records fetched",
-                repository.findAll()
+                repository.findAllResponses()
+        );
+    }
+
+    // Front-desk terminals: many (userId, bookId) pairs per call, one result per item.
+    @PostMapping("/batch/borrow")
+    public ApiResponse<BorrowBatchResult> batchBorrow(@Valid @RequestBody BorrowBatchRequest request) {
+        return new ApiResponse<>(
+                true,
+                "Batch borrow processed",
+                borrowBatchService.borrowBooks(request.getItems())
+        );
+    }
+
+    @PostMapping("/batch/return")
+    public ApiResponse<BorrowBatchResult> batchReturn(@Valid @RequestBody BorrowBatchRequest request) {
+        return new ApiResponse<>(
+                true,
+                "Batch return processed",
+                borrowBatchService.returnBooks(request.getItems())
         );
     }
 }
@@ -0,0 +1,67 @@
+package com.exam.library_management.controller;
+
+import com.exam.library_management.dto.ApiResponse;
+import com.exam.library_management.dto.MonthlyReport;
+import com.exam.library_management.dto.ReportBackfillStatus;
+import com.exam.library_management.service.MonthlyActivityService;
+import com.exam.library_management.service.ReportBackfillService;
+import com.exam.library_management.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminReportController {
+
+    private final MonthlyActivityService monthlyActivityService;
+    private final ReportService reportService;
+    private final ReportBackfillService reportBackfillService;
+
+    // Months that have ended are served from a stored snapshot; the current month is computed live.
+    @GetMapping("/monthly")
+    public ApiResponse<MonthlyReport> getMonthlyReport(@RequestParam YearMonth month) {
+        return new ApiResponse<>(
+                true,
+                "Monthly report fetched",
+                reportService.getReport(month)
+        );
+    }
+
+    // Recomputes a month's rollup from borrow_records, e.g. for months before the rollup existed.
+    @PostMapping("/activity/rebuild")
+    public ApiResponse<Integer> rebuildActivity(@RequestParam YearMonth month) {
+        return new ApiResponse<>(
+                true,
+                "Monthly activity rebuilt",
+                monthlyActivityService.rebuild(month)
+        );
+    }
+
+    // Builds stored reports for closed months in the background; poll GET /backfill for progress.
+    @PostMapping("/backfill")
+    public ApiResponse<ReportBackfillStatus> startBackfill(
+            @RequestParam YearMonth from,
+            @RequestParam YearMonth to,
+            @RequestParam(defaultValue = "false") boolean rebuildActivity
+    ) {
+        return new ApiResponse<>(
+                true,
+                "Report backfill started",
+                reportBackfillService.start(from, to, rebuildActivity)
+        );
+    }
+
+    @GetMapping("/backfill")
+    public ApiResponse<ReportBackfillStatus> getBackfillStatus() {
+        return new ApiResponse<>(
+                true,
+                "Report backfill status fetched",
+                reportBackfillService.status()
+        );
+    }
+}
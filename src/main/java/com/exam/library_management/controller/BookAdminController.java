@@ -1,16 +1,35 @@
 package com.exam.library_management.controller;
 
 import com.exam.library_management.dto.ApiResponse;
+import com.exam.library_management.dto.BookChangesResponse;
 import com.exam.library_management.dto.BookCreateRequest;
+import com.exam.library_management.dto.BookImportResult;
+import com.exam.library_management.dto.BookResponse;
 import com.exam.library_management.dto.BookUpdateRequest;
+import com.exam.library_management.dto.CursorPage;
 import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookFileFormat;
+import com.exam.library_management.service.BookExportService;
+import com.exam.library_management.service.BookImportService;
 import com.exam.library_management.service.BookService;
+import com.exam.library_management.service.CatalogVersion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -19,7 +38,12 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")
 public class BookAdminController {
 
+    private static final String TEXT_CSV = "text/csv";
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final CatalogVersion catalogVersion;
 
     @PostMapping("/add")
     public ResponseEntity<ApiResponse<Book>> addBook(@Valid @RequestBody BookCreateRequest request) {
@@ -47,14 +71,83 @@ public class BookAdminController {
         );
     }
 
+    // A matching If-None-Match is answered with 304 before the repository is queried.
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Book>>> getAllBooks() {
+    public ResponseEntity<ApiResponse<List<BookResponse>>> getAllBooks(WebRequest request) {
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(new ApiResponse<>(true, "Books fetched successfully",
+                        bookService.getAllBooks()));
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<ApiResponse<CursorPage<BookResponse>>> getBooksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam int size,
+            WebRequest request) {
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(new ApiResponse<>(true, "Books fetched successfully",
+                        bookService.getAllBooks(cursor, size)));
+    }
+
+    // Delta sync for catalog mirrors: only books changed after the given feed version.
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<BookChangesResponse>> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int size) {
         return ResponseEntity.ok(
-                new ApiResponse<>(true, "Books fetched successfully",
-                        bookService.getAllBooks())
+                new ApiResponse<>(true, "Book changes fetched successfully",
+                        bookService.getChangesSince(since, size))
         );
     }
 
+    // Reads the raw body stream so large files are never buffered in memory.
+    @PostMapping(value = "/import", consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<BookImportResult>> importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        BookFileFormat format = MediaType.parseMediaType(TEXT_CSV).isCompatibleWith(mediaType)
+                ? BookFileFormat.CSV
+                : BookFileFormat.NDJSON;
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+
+        BookImportResult result = bookImportService.importBooks(new InputStreamReader(body, charset), format);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Books imported successfully", result)
+        );
+    }
+
+    // Rows are written to the response as they are read; nothing is collected into a list.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(required = false) String format) {
+        BookFileFormat fileFormat = bookExportService.resolveFormat(format);
+        boolean csv = fileFormat == BookFileFormat.CSV;
+
+        StreamingResponseBody body = out -> bookExportService.exportBooks(fileFormat, out);
+        return ResponseEntity.ok()
+                .contentType(csv
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "books.csv" : "books.ndjson")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     private Book toBook(BookCreateRequest request) {
         Book book = new Book();
         book.setBookCode(request.getBookCode());
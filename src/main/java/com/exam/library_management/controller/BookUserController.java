@@ -1,12 +1,20 @@
 package com.exam.library_management.controller;
 
-import com.exam.library_management.entity.Book;
+import com.exam.library_management.service.BookAvailabilityBroadcaster;
 import com.exam.library_management.service.BookService;
+import com.exam.library_management.service.CatalogVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.exam.library_management.dto.ApiResponse;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.dto.BookSearchResponse;
+import com.exam.library_management.dto.CursorPage;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -17,15 +25,62 @@ import java.util.List;
 public class BookUserController {
 
     private final BookService bookService;
+    private final CatalogVersion catalogVersion;
+    private final BookAvailabilityBroadcaster availabilityBroadcaster;
 
+    // A matching If-None-Match is answered with 304 before the catalog is read or serialized.
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Book>>> viewAvailableBooks() {
-        return ResponseEntity.ok(
-                new ApiResponse<>(
+    public ResponseEntity<ApiResponse<List<BookResponse>>> viewAvailableBooks(WebRequest request) {
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(new ApiResponse<>(
                         true,
                         "Available books fetched successfully",
                         bookService.getAvailableBooks()
+                ));
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<ApiResponse<CursorPage<BookResponse>>> viewAvailableBooksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam int size,
+            WebRequest request) {
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(new ApiResponse<>(
+                        true,
+                        "Available books fetched successfully",
+                        bookService.getAvailableBooks(cursor, size)
+                ));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<BookSearchResponse>> searchBooks(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(
+                new ApiResponse<>(
+                        true,
+                        "Books searched successfully",
+                        bookService.searchBooks(q, page, size)
                 )
         );
     }
+
+    // Live AVAILABLE/BORROWED transitions as server-sent "availability" events (BookResponse payload).
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability() {
+        return availabilityBroadcaster.subscribe();
+    }
 }
@@ -5,6 +5,8 @@ import com.exam.library_management.entity.BorrowRecord;
 import com.exam.library_management.dto.ApiResponse;
 import com.exam.library_management.entity.User;
 import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.security.AuthenticatedUser;
+import com.exam.library_management.service.BorrowAdmission;
 import com.exam.library_management.service.BorrowService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +28,7 @@ import org.slf4j.LoggerFactory;
 public class BorrowController {
 
     private final BorrowService borrowService;
+    private final BorrowAdmission borrowAdmission;
     private final UserRepository userRepository;
 
     private static final Logger logger = LoggerFactory.getLogger(BorrowController.class);
@@ -35,11 +38,9 @@ public class BorrowController {
             @PathVariable Long bookId,
             Authentication authentication) {
 
-        User user = userRepository
-                .findByEmail(authentication.getName())
-                .orElseThrow();
+        User user = currentUser(authentication);
 
-        BorrowRecord record = borrowService.borrowBook(user, bookId);
+        BorrowRecord record = borrowAdmission.admit(bookId, () -> borrowService.borrowBook(user, bookId));
         return new ApiResponse<>(
                 true,
                 "Book borrowed successfully",
@@ -60,11 +61,7 @@ public class BorrowController {
 
         logger.info("Return book API called");
 
-        String email = authentication.getName();
-
-        User user = userRepository
-                .findByEmail(email)
-                .orElseThrow(() -> new BadRequestException("Authenticated user not found"));
+        User user = currentUser(authentication);
 
         BorrowRecord record = borrowService.returnBook(user);
 
@@ -79,4 +76,15 @@ public class BorrowController {
                 Map.of("lateFee", lateFee)
         );
     }
+
+    // Stateless tokens already carry the user id; a reference is all the services need.
+    private User currentUser(Authentication authentication) {
+        Long userId = AuthenticatedUser.idOf(authentication);
+        if (userId != null) {
+            return userRepository.getReferenceById(userId);
+        }
+        return userRepository
+                .findByEmail(authentication.getName())
+                .orElseThrow(() -> new BadRequestException("Authenticated user not found"));
+    }
 }
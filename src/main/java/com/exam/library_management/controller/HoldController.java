@@ -0,0 +1,62 @@
+package com.exam.library_management.controller;
+
+import com.exam.library_management.dto.ApiResponse;
+import com.exam.library_management.dto.HoldResponse;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.security.AuthenticatedUser;
+import com.exam.library_management.service.HoldService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/user/holds")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER')")
+public class HoldController {
+
+    private final HoldService holdService;
+    private final UserRepository userRepository;
+
+    @PostMapping("/book/{bookId}")
+    public ApiResponse<HoldResponse> placeHold(@PathVariable Long bookId, Authentication authentication) {
+        return new ApiResponse<>(
+                true,
+                "Hold placed successfully",
+                holdService.placeHold(currentUser(authentication), bookId)
+        );
+    }
+
+    @GetMapping
+    public ApiResponse<List<HoldResponse>> myHolds(Authentication authentication) {
+        return new ApiResponse<>(
+                true,
+                "Holds fetched successfully",
+                holdService.getHolds(currentUser(authentication))
+        );
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ApiResponse<Void> cancelHold(@PathVariable Long holdId, Authentication authentication) {
+        holdService.cancelHold(currentUser(authentication), holdId);
+        return new ApiResponse<>(true, "Hold cancelled successfully", null);
+    }
+
+    private User currentUser(Authentication authentication) {
+        if (authentication == null) {
+            throw new BadRequestException("Authentication required");
+        }
+        Long userId = AuthenticatedUser.idOf(authentication);
+        if (userId != null) {
+            return userRepository.getReferenceById(userId);
+        }
+        return userRepository
+                .findByEmail(authentication.getName())
+                .orElseThrow(() -> new BadRequestException("Authenticated user not found"));
+    }
+}
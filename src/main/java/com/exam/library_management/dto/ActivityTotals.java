@@ -0,0 +1,14 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class ActivityTotals {
+    private long borrowedCount;
+    private long returnedCount;
+    private BigDecimal lateFees;
+}
@@ -0,0 +1,24 @@
+package com.exam.library_management.dto;
+
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookChange {
+
+    private long version;
+
+    // The book row's version after this change; a book's entries always appear in this order.
+    private long bookVersion;
+
+    private BookChangedEvent.Type type;
+
+    // Status before this change; differs from book.status on a borrow/return flip. Null for CREATED.
+    private BookStatus previousStatus;
+
+    // Latest state of the book; for DELETED the last state before removal.
+    private BookResponse book;
+}
@@ -0,0 +1,21 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of the catalog change feed. Pass {@code version} back as {@code since};
+ * when {@code resyncRequired} is set the client must reload the full catalog first.
+ */
+@Getter
+@AllArgsConstructor
+public class BookChangesResponse {
+
+    private long since;
+    private long version;
+    private boolean resyncRequired;
+    private boolean hasMore;
+    private List<BookChange> changes;
+}
@@ -0,0 +1,14 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookImportError {
+
+    // 1-based line number in the uploaded file.
+    private long line;
+    private String bookCode;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BookImportResult {
+
+    private long imported;
+    private long failed;
+
+    // Capped list of row failures; failed keeps the full count.
+    private List<BookImportError> errors;
+}
@@ -0,0 +1,27 @@
+package com.exam.library_management.dto;
+
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookResponse {
+
+    private Long id;
+    private String bookCode;
+    private String title;
+    private String author;
+    private BookStatus status;
+
+    public static BookResponse from(Book book) {
+        return new BookResponse(
+                book.getId(),
+                book.getBookCode(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getStatus()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BookSearchResponse {
+
+    private int total;
+    private int page;
+    private int size;
+    private List<BookResponse> items;
+}
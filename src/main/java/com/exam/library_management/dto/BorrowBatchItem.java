@@ -0,0 +1,39 @@
+package com.exam.library_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+public class BorrowBatchItem {
+
+    @NotNull(message = "userId is required")
+    @Schema(example = "42")
+    private Long userId;
+
+    @NotNull(message = "bookId is required")
+    @Schema(example = "1001")
+    private Long bookId;
+
+    public BorrowBatchItem() {
+    }
+
+    public BorrowBatchItem(Long userId, Long bookId) {
+        this.userId = userId;
+        this.bookId = bookId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+}
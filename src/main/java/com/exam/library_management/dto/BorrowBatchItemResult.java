@@ -0,0 +1,26 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class BorrowBatchItemResult {
+
+    // 0-based position of the item in the request.
+    private int index;
+    private Long userId;
+    private Long bookId;
+    private boolean success;
+
+    // Set for successful items only.
+    private Long recordId;
+    private LocalDate dueDate;
+    private BigDecimal lateFee;
+
+    // Reason for a failed item, same wording as the single borrow/return endpoints.
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.exam.library_management.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class BorrowBatchRequest {
+
+    @NotEmpty(message = "items must not be empty")
+    private List<@NotNull(message = "items must not contain null entries") @Valid BorrowBatchItem> items;
+
+    public List<BorrowBatchItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BorrowBatchItem> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,17 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BorrowBatchResult {
+
+    private long succeeded;
+    private long failed;
+
+    // One entry per request item, in request order.
+    private List<BorrowBatchItemResult> items;
+}
@@ -0,0 +1,23 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class BorrowRecordResponse {
+
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private Long bookId;
+    private String bookCode;
+    private String bookTitle;
+    private LocalDate borrowDate;
+    private LocalDate dueDate;
+    private LocalDate returnDate;
+    private BigDecimal lateFee;
+}
@@ -0,0 +1,34 @@
+package com.exam.library_management.dto;
+
+import com.exam.library_management.enums.HoldStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class HoldResponse {
+
+    private final Long id;
+    private final Long bookId;
+    private final String bookCode;
+    private final String bookTitle;
+    private final HoldStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime readyUntil;
+
+    // 1-based place in the book's waitlist while WAITING, otherwise null.
+    @Setter
+    private Integer position;
+
+    public HoldResponse(Long id, Long bookId, String bookCode, String bookTitle,
+                        HoldStatus status, LocalDateTime createdAt, LocalDateTime readyUntil) {
+        this.id = id;
+        this.bookId = bookId;
+        this.bookCode = bookCode;
+        this.bookTitle = bookTitle;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.readyUntil = readyUntil;
+    }
+}
@@ -1,9 +1,9 @@
 package com.exam.library_management.dto;
 
-import com.exam.library_management.entity.BorrowRecord;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -12,8 +12,9 @@ import java.util.List;
 public class MonthlyReport {
 
     private YearMonth month;
-    private List<BorrowRecord> booksBorrowed;
-    private List<BorrowRecord> booksReturned;
-    private List<BorrowRecord> overdueBooks;
+    private long booksBorrowed;
+    private long booksReturned;
+    private long overdueBooks;
     private List<UserActivitySummary> userActivity;
+    private LocalDateTime generatedAt;
 }
@@ -0,0 +1,27 @@
+package com.exam.library_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ReportBackfillStatus {
+
+    private String id;
+    private YearMonth from;
+    private YearMonth to;
+    private boolean rebuildActivity;
+    private int totalMonths;
+    private int completedMonths;
+
+    // "YYYY-MM: reason" for each month that could not be built.
+    private List<String> failedMonths;
+    private LocalDateTime startedAt;
+
+    // Null while months are still running.
+    private LocalDateTime finishedAt;
+}
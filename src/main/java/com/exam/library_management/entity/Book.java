@@ -33,4 +33,8 @@ public class Book {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookStatus status = BookStatus.AVAILABLE;
+
+    // Bumped by every write while the row is locked, so change events can be ordered per book.
+    @Column(nullable = false)
+    private long version;
 }
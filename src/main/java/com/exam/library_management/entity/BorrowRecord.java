@@ -7,13 +7,26 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "borrow_records")
+@Table(
+    name = "borrow_records",
+    uniqueConstraints = {
+        // At most one open loan per user: active_user_id is NULL once returned, and NULLs never clash.
+        @UniqueConstraint(name = BorrowRecord.ACTIVE_LOAN_KEY, columnNames = "active_user_id")
+    },
+    indexes = {
+        // Range scans by month: borrow_date BETWEEN ? AND ?, grouped by user (and book for the rollup rebuild).
+        @Index(name = "idx_borrow_records_borrow_date_user", columnList = "borrow_date, user_id, book_id"),
+        @Index(name = "idx_borrow_records_return_date_user", columnList = "return_date, user_id, book_id")
+    }
+)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class BorrowRecord {
 
+    public static final String ACTIVE_LOAN_KEY = "uk_borrow_records_active_user";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -37,4 +50,14 @@ public class BorrowRecord {
 
     @Column(name = "late_fee")
     private BigDecimal lateFee;
+
+    // Maintained by MySQL from user_id and return_date; never written by the application.
+    @Setter(AccessLevel.NONE)
+    @Column(
+        name = "active_user_id",
+        insertable = false,
+        updatable = false,
+        columnDefinition = "BIGINT GENERATED ALWAYS AS (CASE WHEN return_date IS NULL THEN user_id END) STORED"
+    )
+    private Long activeUserId;
 }
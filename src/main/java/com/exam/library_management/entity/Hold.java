@@ -0,0 +1,63 @@
+package com.exam.library_management.entity;
+
+import com.exam.library_management.enums.HoldStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "holds",
+    uniqueConstraints = {
+        // One live (WAITING or READY) hold per user and book; closed holds have a NULL live_book_id.
+        @UniqueConstraint(name = Hold.LIVE_HOLD_KEY, columnNames = {"user_id", "live_book_id"})
+    },
+    indexes = {
+        // Serves the waitlist head lookup: book_id = ? AND status = 'WAITING' ORDER BY id.
+        @Index(name = "idx_holds_book_status_id", columnList = "book_id, status, id"),
+        // Serves the pickup-window sweep: status = 'READY' AND ready_until < ?.
+        @Index(name = "idx_holds_status_ready_until", columnList = "status, ready_until")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Hold {
+
+    public static final String LIVE_HOLD_KEY = "uk_holds_user_live_book";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HoldStatus status = HoldStatus.WAITING;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set when the book is handed to this hold; the pickup deadline.
+    @Column(name = "ready_until")
+    private LocalDateTime readyUntil;
+
+    // Maintained by MySQL from status and book_id; never written by the application.
+    @Setter(AccessLevel.NONE)
+    @Column(
+        name = "live_book_id",
+        insertable = false,
+        updatable = false,
+        columnDefinition = "BIGINT GENERATED ALWAYS AS (CASE WHEN status IN ('WAITING', 'READY') THEN book_id END) STORED"
+    )
+    private Long liveBookId;
+}
@@ -0,0 +1,53 @@
+package com.exam.library_management.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Borrow and return counts per month, user and book, incremented in the same transaction
+ * as each loan change. Reports sum these rows instead of scanning borrow_records.
+ */
+@Entity
+@Table(
+    name = "monthly_activity",
+    uniqueConstraints = {
+        // Upsert target of the write path; its month prefix also serves range reports.
+        @UniqueConstraint(name = MonthlyActivity.ACTIVITY_KEY, columnNames = {"activity_month", "user_id", "book_id"})
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyActivity {
+
+    public static final String ACTIVITY_KEY = "uk_monthly_activity_month_user_book";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First day of the month the loans were opened or closed in.
+    @Column(name = "activity_month", nullable = false)
+    private LocalDate activityMonth;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    @Column(name = "borrowed_count", nullable = false)
+    private long borrowedCount;
+
+    @Column(name = "returned_count", nullable = false)
+    private long returnedCount;
+
+    @Column(name = "late_fees", nullable = false, precision = 12, scale = 2)
+    private BigDecimal lateFees = BigDecimal.ZERO;
+}
@@ -0,0 +1,59 @@
+package com.exam.library_management.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The monthly report for a month that has ended, computed once and then served as stored.
+ * Loans only ever change with today's date, so a closed month's figures cannot move; the
+ * snapshot is dropped only when the month's rollup is rebuilt.
+ */
+@Entity
+@Table(
+    name = "monthly_report_snapshots",
+    uniqueConstraints = {
+        // Two admins asking for the same month at once: one insert wins, the other reads it back.
+        @UniqueConstraint(name = MonthlyReportSnapshot.REPORT_MONTH_KEY, columnNames = "report_month")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyReportSnapshot {
+
+    public static final String REPORT_MONTH_KEY = "uk_monthly_report_snapshots_month";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First day of the reported month.
+    @Column(name = "report_month", nullable = false)
+    private LocalDate reportMonth;
+
+    @Column(name = "borrowed_count", nullable = false)
+    private long borrowedCount;
+
+    @Column(name = "returned_count", nullable = false)
+    private long returnedCount;
+
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    @ElementCollection
+    @CollectionTable(
+        name = "monthly_report_snapshot_users",
+        joinColumns = @JoinColumn(name = "snapshot_id")
+    )
+    @OrderColumn(name = "position")
+    private List<ReportedUserActivity> userActivity = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package com.exam.library_management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+// One user's line in a stored monthly report; copied, not joined, so the snapshot never changes.
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportedUserActivity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "borrowed_count", nullable = false)
+    private long borrowedCount;
+
+    @Column(name = "returned_count", nullable = false)
+    private long returnedCount;
+}
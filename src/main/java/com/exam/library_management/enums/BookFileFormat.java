@@ -0,0 +1,6 @@
+package com.exam.library_management.enums;
+
+public enum BookFileFormat {
+    CSV,
+    NDJSON
+}
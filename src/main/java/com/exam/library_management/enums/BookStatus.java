@@ -2,5 +2,7 @@ package com.exam.library_management.enums;
 
 public enum BookStatus {
     AVAILABLE,
-    BORROWED
+    BORROWED,
+    // Returned while users were waiting; held for the head of the waitlist until pickup or expiry.
+    RESERVED
 }
@@ -0,0 +1,10 @@
+package com.exam.library_management.enums;
+
+public enum HoldStatus {
+    WAITING,
+    // The book was handed to this hold on return and is kept until ready_until.
+    READY,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
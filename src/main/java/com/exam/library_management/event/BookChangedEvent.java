@@ -0,0 +1,55 @@
+package com.exam.library_management.event;
+
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the book write paths (admin CRUD and borrow/return) so in-memory
+ * catalog views can follow committed changes without re-reading the database.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+
+    // State after the change; for DELETED the last state before removal.
+    private final BookResponse book;
+
+    // Status before the change, null for CREATED.
+    private final BookStatus previousStatus;
+
+    /*
+     * The book's version after the change. After-commit listeners run on each committing
+     * thread, so two writes to one book can arrive in either order; views keep the highest
+     * version they have applied per book and drop anything older.
+     */
+    private final long version;
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Type.CREATED, BookResponse.from(book), null, book.getVersion());
+    }
+
+    public static BookChangedEvent updated(Book book, BookStatus previousStatus) {
+        return new BookChangedEvent(Type.UPDATED, BookResponse.from(book), previousStatus, book.getVersion());
+    }
+
+    // The row is gone, so the deletion takes the version one past its last write.
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(Type.DELETED, BookResponse.from(book), book.getStatus(), book.getVersion() + 1);
+    }
+
+    public boolean isStatusChange() {
+        return type == Type.UPDATED && previousStatus != book.getStatus();
+    }
+}
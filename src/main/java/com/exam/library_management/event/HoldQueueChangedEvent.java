@@ -0,0 +1,15 @@
+package com.exam.library_management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when the waiting holds of a book change (placed, cancelled or handed
+ * the book), so the in-memory waitlist is reloaded after the write commits.
+ */
+@Getter
+@AllArgsConstructor
+public class HoldQueueChangedEvent {
+
+    private final Long bookId;
+}
@@ -0,0 +1,16 @@
+package com.exam.library_management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user is registered or their account details change, so cached
+ * login lookups for either of their usernames are dropped after the write commits.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final String email;
+    private final String libraryId;
+}
@@ -1,14 +1,78 @@
 package com.exam.library_management.repository;
 
+import com.exam.library_management.dto.BookResponse;
 import com.exam.library_management.entity.Book;
 import com.exam.library_management.enums.BookStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
     Optional<Book> findByBookCode(String bookCode);
 
     List<Book> findByStatus(BookStatus status);
+
+    List<Book> findByBookCodeIn(Collection<String> bookCodes);
+
+    // Keyset seeks: callers pass PageRequest.of(0, n) so only a LIMIT is applied, never an OFFSET.
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Row lock on the book: serializes hold placement with the waitlist handoff on return.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> lockById(@Param("id") Long id);
+
+    /*
+     * Guarded status flip in a single statement: the row lock taken by the UPDATE makes
+     * concurrent callers queue, and only the first to see {@code expected} gets 1 back.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Book b SET b.status = :next, b.version = b.version + 1
+        WHERE b.id = :id AND b.status = :expected
+    """)
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expected") BookStatus expected,
+                            @Param("next") BookStatus next);
+
+    /*
+     * Read-only listings select straight into BookResponse: no managed entities,
+     * no dirty-check snapshots, and nothing for the persistence context to hold on to.
+     */
+    @Query("""
+        SELECT new com.exam.library_management.dto.BookResponse(b.id, b.bookCode, b.title, b.author, b.status)
+        FROM Book b
+        ORDER BY b.id
+    """)
+    List<BookResponse> findAllResponses();
+
+    @Query("""
+        SELECT new com.exam.library_management.dto.BookResponse(b.id, b.bookCode, b.title, b.author, b.status)
+        FROM Book b
+        WHERE b.id > :id
+        ORDER BY b.id
+    """)
+    List<BookResponse> findResponsesAfter(@Param("id") Long id, Pageable pageable);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one by one instead of buffering the result set.
+    // Callers must consume the stream inside a transaction and close it.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        SELECT new com.exam.library_management.dto.BookResponse(b.id, b.bookCode, b.title, b.author, b.status)
+        FROM Book b
+        ORDER BY b.id
+    """)
+    Stream<BookResponse> streamAllResponses();
 }
@@ -1,24 +1,48 @@
 package com.exam.library_management.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
+import com.exam.library_management.dto.BorrowRecordResponse;
 import com.exam.library_management.dto.UserActivitySummary;
 import com.exam.library_management.entity.BorrowRecord;
 import com.exam.library_management.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long> {
 
     // Active borrow (not returned yet)
     Optional<BorrowRecord> findByUserAndReturnDateIsNull(User user);
-    boolean existsByUserAndReturnDateIsNull(User user);
 
     Optional<BorrowRecord> findByBookIdAndReturnDateIsNull(Long bookId);
 
+    // Just the book id, so the caller can lock the book before loading the loan itself.
+    @Query("SELECT br.book.id FROM BorrowRecord br WHERE br.user.id = :userId AND br.returnDate IS NULL")
+    Optional<Long> findActiveBookId(@Param("userId") Long userId);
+
+    // Closes the loan only if it is still open; 0 means another return got there first.
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE BorrowRecord br
+        SET br.returnDate = :returnDate, br.lateFee = :lateFee
+        WHERE br.id = :id AND br.returnDate IS NULL
+    """)
+    int closeLoan(@Param("id") Long id,
+                  @Param("returnDate") LocalDate returnDate,
+                  @Param("lateFee") BigDecimal lateFee);
+
     List<BorrowRecord> findByUser(User user);
 
     List<BorrowRecord> findByBorrowDateBetween(LocalDate start, LocalDate end);
@@ -39,19 +63,120 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long
     """)
     List<BorrowRecord> findOverdueBooks(@Param("date") LocalDate date);
 
+    long countByBorrowDateBetween(LocalDate start, LocalDate end);
+
+    long countByReturnDateBetween(LocalDate start, LocalDate end);
+
+    boolean existsByBorrowDateBetween(LocalDate start, LocalDate end);
+
+    boolean existsByReturnDateBetween(LocalDate start, LocalDate end);
+
+    // Loans that were open and past due at the end of :date, whether or not they have come back since.
+    // The one overdue definition for reports: the stored number for a month must not change as loans return.
+    @Query("""
+        SELECT COUNT(br)
+        FROM BorrowRecord br
+        WHERE br.borrowDate <= :date
+          AND br.dueDate < :date
+          AND (br.returnDate IS NULL OR br.returnDate > :date)
+    """)
+    long countOverdueAsOf(@Param("date") LocalDate date);
+
+    // The loans countOverdueAsOf counts. Same streaming fetch size as BookRepository.streamAllResponses:
+    // consume inside a transaction and close.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        SELECT new com.exam.library_management.dto.BorrowRecordResponse(
+            br.id,
+            u.id,
+            u.email,
+            b.id,
+            b.bookCode,
+            b.title,
+            br.borrowDate,
+            br.dueDate,
+            br.returnDate,
+            br.lateFee
+        )
+        FROM BorrowRecord br
+        JOIN br.user u
+        JOIN br.book b
+        WHERE br.borrowDate <= :date
+          AND br.dueDate < :date
+          AND (br.returnDate IS NULL OR br.returnDate > :date)
+        ORDER BY br.id
+    """)
+    Stream<BorrowRecordResponse> streamOverdue(@Param("date") LocalDate date);
+
+    /*
+     * Borrowed and returned counts per user active in the range, ordered by user id. Each side
+     * is a range scan over its own date index; users with neither are left out. ReportService
+     * falls back to this for months the monthly_activity rollup has no rows for.
+     */
+    default List<UserActivitySummary> getUserActivitySummary(LocalDate start, LocalDate end) {
+        Map<Long, UserActivitySummary> merged = new TreeMap<>();
+        countBorrowsByUser(start, end).forEach(summary -> merged.put(summary.getUserId(), summary));
+        countReturnsByUser(start, end).forEach(summary -> merged.merge(summary.getUserId(), summary,
+                (borrowed, returned) -> new UserActivitySummary(
+                        borrowed.getUserId(),
+                        borrowed.getEmail(),
+                        borrowed.getBorrowedCount(),
+                        returned.getReturnedCount())));
+        return new ArrayList<>(merged.values());
+    }
+
+    @Query("""
+        SELECT new com.exam.library_management.dto.UserActivitySummary(
+            u.id,
+            u.email,
+            COUNT(br),
+            0L
+        )
+        FROM BorrowRecord br
+        JOIN br.user u
+        WHERE br.borrowDate BETWEEN :start AND :end
+        GROUP BY u.id, u.email
+    """)
+    List<UserActivitySummary> countBorrowsByUser(
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
+    );
+
     @Query("""
         SELECT new com.exam.library_management.dto.UserActivitySummary(
             u.id,
             u.email,
-            SUM(CASE WHEN br.borrowDate BETWEEN :start AND :end THEN 1 ELSE 0 END),
-            SUM(CASE WHEN br.returnDate BETWEEN :start AND :end THEN 1 ELSE 0 END)
+            0L,
+            COUNT(br)
         )
         FROM BorrowRecord br
         JOIN br.user u
+        WHERE br.returnDate BETWEEN :start AND :end
         GROUP BY u.id, u.email
     """)
-    List<UserActivitySummary> getUserActivitySummary(
+    List<UserActivitySummary> countReturnsByUser(
             @Param("start") LocalDate start,
             @Param("end") LocalDate end
     );
+
+    // One joined select into a flat DTO: no per-row User/Book loads, and never the password hash.
+    @Query("""
+        SELECT new com.exam.library_management.dto.BorrowRecordResponse(
+            br.id,
+            u.id,
+            u.email,
+            b.id,
+            b.bookCode,
+            b.title,
+            br.borrowDate,
+            br.dueDate,
+            br.returnDate,
+            br.lateFee
+        )
+        FROM BorrowRecord br
+        JOIN br.user u
+        JOIN br.book b
+        ORDER BY br.id
+    """)
+    List<BorrowRecordResponse> findAllResponses();
 }
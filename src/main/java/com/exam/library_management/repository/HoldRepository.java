@@ -0,0 +1,79 @@
+package com.exam.library_management.repository;
+
+import com.exam.library_management.dto.HoldResponse;
+import com.exam.library_management.entity.Hold;
+import com.exam.library_management.enums.HoldStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    // Head of a book's waitlist, row-locked so two handoffs can never pick the same hold.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Hold> findFirstByBookIdAndStatusOrderByIdAsc(Long bookId, HoldStatus status);
+
+    Optional<Hold> findByIdAndUserId(Long id, Long userId);
+
+    long countByBookIdAndStatusAndIdLessThan(Long bookId, HoldStatus status, Long id);
+
+    @Query("""
+        SELECT h.user.id
+        FROM Hold h
+        WHERE h.book.id = :bookId
+          AND h.status = :status
+        ORDER BY h.id
+    """)
+    List<Long> findUserIdsByBookAndStatus(@Param("bookId") Long bookId, @Param("status") HoldStatus status);
+
+    @Query("""
+        SELECT new com.exam.library_management.dto.HoldResponse(
+            h.id, b.id, b.bookCode, b.title, h.status, h.createdAt, h.readyUntil)
+        FROM Hold h
+        JOIN h.book b
+        WHERE h.user.id = :userId
+          AND h.status IN :statuses
+        ORDER BY h.id
+    """)
+    List<HoldResponse> findResponsesByUser(@Param("userId") Long userId,
+                                           @Param("statuses") Collection<HoldStatus> statuses);
+
+    // Turns the user's unexpired READY hold into FULFILLED; 1 means the reserved copy is theirs.
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Hold h
+        SET h.status = com.exam.library_management.enums.HoldStatus.FULFILLED
+        WHERE h.user.id = :userId
+          AND h.book.id = :bookId
+          AND h.status = com.exam.library_management.enums.HoldStatus.READY
+          AND h.readyUntil >= :now
+    """)
+    int fulfillReady(@Param("userId") Long userId,
+                     @Param("bookId") Long bookId,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Hold h SET h.status = :next WHERE h.id = :id AND h.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expected") HoldStatus expected,
+                            @Param("next") HoldStatus next);
+
+    // Not locked here: callers lock the book row first and then close each hold with a guarded UPDATE.
+    @Query("""
+        SELECT h
+        FROM Hold h
+        WHERE h.status = com.exam.library_management.enums.HoldStatus.READY
+          AND h.readyUntil < :now
+        ORDER BY h.id
+    """)
+    List<Hold> findExpiredReady(@Param("now") LocalDateTime now, Pageable pageable);
+}
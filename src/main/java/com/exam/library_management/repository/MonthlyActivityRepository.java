@@ -0,0 +1,67 @@
+package com.exam.library_management.repository;
+
+import com.exam.library_management.dto.ActivityTotals;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.entity.MonthlyActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlyActivityRepository extends JpaRepository<MonthlyActivity, Long> {
+
+    // One statement, atomic under concurrent borrows: the unique key turns the insert into an increment.
+    @Modifying
+    @Query(value = """
+        INSERT INTO monthly_activity (activity_month, user_id, book_id, borrowed_count, returned_count, late_fees)
+        VALUES (:month, :userId, :bookId, 1, 0, 0)
+        ON DUPLICATE KEY UPDATE borrowed_count = borrowed_count + 1
+    """, nativeQuery = true)
+    int recordBorrow(@Param("month") LocalDate month,
+                     @Param("userId") Long userId,
+                     @Param("bookId") Long bookId);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO monthly_activity (activity_month, user_id, book_id, borrowed_count, returned_count, late_fees)
+        VALUES (:month, :userId, :bookId, 0, 1, :lateFee)
+        ON DUPLICATE KEY UPDATE returned_count = returned_count + 1, late_fees = late_fees + :lateFee
+    """, nativeQuery = true)
+    int recordReturn(@Param("month") LocalDate month,
+                     @Param("userId") Long userId,
+                     @Param("bookId") Long bookId,
+                     @Param("lateFee") BigDecimal lateFee);
+
+    // Months are stored as their first day, so BETWEEN first-of-from and first-of-to covers the range.
+    @Query("""
+        SELECT new com.exam.library_management.dto.UserActivitySummary(
+            u.id,
+            u.email,
+            SUM(ma.borrowedCount),
+            SUM(ma.returnedCount)
+        )
+        FROM MonthlyActivity ma
+        JOIN ma.user u
+        WHERE ma.activityMonth BETWEEN :from AND :to
+        GROUP BY u.id, u.email
+        ORDER BY u.id
+    """)
+    List<UserActivitySummary> summarizeUsers(@Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+
+    @Query("""
+        SELECT new com.exam.library_management.dto.ActivityTotals(
+            COALESCE(SUM(ma.borrowedCount), 0),
+            COALESCE(SUM(ma.returnedCount), 0),
+            COALESCE(SUM(ma.lateFees), 0)
+        )
+        FROM MonthlyActivity ma
+        WHERE ma.activityMonth BETWEEN :from AND :to
+    """)
+    ActivityTotals totals(@Param("from") LocalDate from,
+                          @Param("to") LocalDate to);
+}
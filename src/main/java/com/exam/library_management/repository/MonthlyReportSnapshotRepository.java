@@ -0,0 +1,18 @@
+package com.exam.library_management.repository;
+
+import com.exam.library_management.entity.MonthlyReportSnapshot;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface MonthlyReportSnapshotRepository extends JpaRepository<MonthlyReportSnapshot, Long> {
+
+    // Read outside a transaction, so the user lines come back in the same select.
+    @EntityGraph(attributePaths = "userActivity")
+    Optional<MonthlyReportSnapshot> findByReportMonth(LocalDate reportMonth);
+
+    // Derived delete: loads and removes the snapshot so its user lines go with it.
+    long deleteByReportMonth(LocalDate reportMonth);
+}
@@ -0,0 +1,108 @@
+package com.exam.library_management.security;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the slow password hashes (login checks and registration) on a small dedicated
+ * pool, so a burst of logins can use at most that many cores while catalog requests keep
+ * theirs. The calling request waits for its hash; once the pool and its queue are full,
+ * further callers are turned away with 503 instead of piling up behind them.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    static final String BUSY_MESSAGE = "Too many sign-in requests right now. Please try again shortly.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor hashers;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  LibraryProperties.PasswordHashing settings,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        int threads = Math.max(1, settings.getWorkers());
+        this.hashers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity())),
+                new CustomizableThreadFactory("password-hash-"));
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.rejections = Counter.builder("library.password.hash.rejected")
+                .description("Password hashes refused because the hashing pool was full")
+                .register(meterRegistry);
+        Gauge.builder("library.password.hash.queue", hashers, executor -> executor.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the stored hash's prefix; cheap enough for the caller's thread.
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        hashers.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Supplier<T> hash) {
+        Future<T> result;
+        try {
+            result = hashers.submit(() -> timer.record(hash));
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY_MESSAGE);
+        } catch (CancellationException ex) {
+            throw new ServiceBusyException(BUSY_MESSAGE);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("library.password.hash")
+                .description("Time spent computing password hashes on the hashing pool")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -76,27 +76,37 @@
 
 package com.exam.library_management.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final UserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil,
-                                   CustomUserDetailsService userDetailsService) {
-        this.jwtUtil = jwtUtil;
+    // When true, tokens carrying uid/role claims are trusted without loading the user.
+    private final boolean statelessAuth;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache tokenCache,
+                                   UserDetailsService userDetailsService,
+                                   boolean statelessAuth) {
+        this.tokenCache = tokenCache;
         this.userDetailsService = userDetailsService;
+        this.statelessAuth = statelessAuth;
     }
 
     @Override
@@ -113,38 +123,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String jwt = authHeader.substring(7);
-        String username;
 
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        VerifiedToken token;
         try {
-            username = jwtUtil.extractUsername(jwt);
-        } catch (Exception e) {
+            // At most one signature check per request; none for a token seen recently.
+            token = tokenCache.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
             filterChain.doFilter(request, response); // ⬅️ important
             return;
         }
 
-        if (username != null &&
-                SecurityContextHolder.getContext().getAuthentication() == null) {
-
+        Optional<AuthenticatedUser> principal = statelessAuth ? token.principal() : Optional.empty();
+        if (principal.isPresent()) {
+            authenticate(request, principal.get(), principal.get().getAuthorities());
+        } else if (token.getSubject() != null) {
+            // Token issued before the uid/role claims, or stateless mode off: check it against the user record.
             UserDetails userDetails =
-                    userDetailsService.loadUserByUsername(username);
+                    userDetailsService.loadUserByUsername(token.getSubject());
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (token.getSubject().equals(userDetails.getUsername())) {
+                authenticate(request, userDetails, userDetails.getAuthorities());
+            }
+        }
 
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+        filterChain.doFilter(request, response);
+    }
 
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
+    private static void authenticate(HttpServletRequest request,
+                                     Object principal,
+                                     Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        authorities
                 );
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
-        }
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
 
-        filterChain.doFilter(request, response);
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
@@ -1,12 +1,15 @@
 package com.exam.library_management.security;
 
 import com.exam.library_management.config.JwtProperties;
+import com.exam.library_management.enums.Role;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -17,12 +20,18 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+
     // 🔐 Secret key (DO NOT hardcode in real prod apps)
     // private final SecretKey secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
 
     private final SecretKey secretKey;
     private final long jwtExpirationMs;
 
+    // Immutable and thread-safe: built once instead of once per parse.
+    private final JwtParser parser;
+
     // public JwtUtil(
     //         @Value("${jwt.secret}") String secret,
     //         @Value("${jwt.expiration}") long jwtExpirationMs
@@ -33,6 +42,9 @@ public class JwtUtil {
                 jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)
         );
         this.jwtExpirationMs = jwtProperties.getExpiration();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
     }
 
     // private static final long JWT_EXPIRATION_MS = 24 * 60 * 60 * 1000; // 1 day
@@ -41,50 +53,39 @@ public class JwtUtil {
        TOKEN GENERATION
        =============================== */
     public String generateToken(UserDetails userDetails) {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(secretKey)
-                .compact();
-    }
-
-    /* ===============================
-       EXTRACT USERNAME
-       =============================== */
-    public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
-    }
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs));
 
-    /* ===============================
-       VALIDATE TOKEN
-       =============================== */
-    public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return username.equals(userDetails.getUsername())
-                    && !isTokenExpired(token);
-        } catch (Exception ex) {
-            return false;
+        // uid + role let the filter authenticate from the token alone (see verify()).
+        if (userDetails instanceof LibraryUserDetails libraryUser && libraryUser.getId() != null) {
+            builder.claim(USER_ID_CLAIM, libraryUser.getId());
         }
+        userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .findFirst()
+                .ifPresent(authority -> builder.claim(ROLE_CLAIM, authority.substring("ROLE_".length())));
+
+        return builder.signWith(secretKey).compact();
     }
 
     /* ===============================
-       HELPERS
+       VERIFY ONCE
        =============================== */
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
-    }
-
-    private Claims extractAllClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (ExpiredJwtException ex) {
-            return ex.getClaims();
-        }
+    /*
+     * Checks signature and expiry in a single parse and returns everything callers need.
+     * Throws JwtException (or IllegalArgumentException) for bad, expired or tampered tokens.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getExpiration(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                role != null ? Role.valueOf(role) : null
+        );
     }
 }
@@ -0,0 +1,44 @@
+package com.exam.library_management.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/* Spring Security user that also remembers the database id, so login can put it in the token. */
+public class LibraryUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+
+    // Null when built without it; the email stays the username either way.
+    private final String libraryId;
+
+    public LibraryUserDetails(Long id,
+                              String username,
+                              String password,
+                              Collection<? extends GrantedAuthority> authorities) {
+        this(id, null, username, password, authorities);
+    }
+
+    public LibraryUserDetails(Long id,
+                              String libraryId,
+                              String username,
+                              String password,
+                              Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+        this.libraryId = libraryId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLibraryId() {
+        return libraryId;
+    }
+
+    /* Copy safe to keep in memory: same identity and roles, no password hash. */
+    public LibraryUserDetails withoutPassword() {
+        return new LibraryUserDetails(id, libraryId, getUsername(), "", getAuthorities());
+    }
+}
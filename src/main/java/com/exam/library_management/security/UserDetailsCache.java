@@ -0,0 +1,68 @@
+package com.exam.library_management.security;
+
+import com.exam.library_management.config.JwtProperties;
+import com.exam.library_management.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caching front for {@link CustomUserDetailsService}, used by the JWT filter for tokens that
+ * still need a database-backed principal. A loaded user is stored under both their email
+ * and library id, without the password hash, so it is no use for checking credentials;
+ * login keeps going through CustomUserDetailsService.
+ */
+@Component
+public class UserDetailsCache implements UserDetailsService {
+
+    static final String CACHE_NAME = "jwt.users";
+
+    private final CustomUserDetailsService delegate;
+    private final Cache<String, LibraryUserDetails> cache;
+
+    public UserDetailsCache(CustomUserDetailsService delegate,
+                            JwtProperties jwtProperties,
+                            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        JwtProperties.UserCache settings = jwtProperties.getUserCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        LibraryUserDetails cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        // Unknown usernames are not cached: they throw, and registration may create them at any time.
+        LibraryUserDetails loaded = ((LibraryUserDetails) delegate.loadUserByUsername(username)).withoutPassword();
+        cache.put(username, loaded);
+        cache.put(loaded.getUsername(), loaded);
+        if (loaded.getLibraryId() != null) {
+            cache.put(loaded.getLibraryId(), loaded);
+        }
+        return loaded;
+    }
+
+    // Keys may differ in case from the stored values (MySQL compares them case-insensitively),
+    // so entries are matched on the cached user as well as on the key.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.invalidate(event.getEmail());
+        cache.invalidate(event.getLibraryId());
+        cache.asMap().values().removeIf(user ->
+                user.getUsername().equalsIgnoreCase(event.getEmail())
+                        || (user.getLibraryId() != null && user.getLibraryId().equalsIgnoreCase(event.getLibraryId())));
+    }
+}
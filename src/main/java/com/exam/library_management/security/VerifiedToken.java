@@ -0,0 +1,33 @@
+package com.exam.library_management.security;
+
+import com.exam.library_management.enums.Role;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Claims of a JWT whose signature and expiry were checked once by {@link JwtUtil#verify}.
+ * Callers read everything they need from here instead of parsing the token again.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class VerifiedToken {
+
+    private final String subject;
+    private final Date expiresAt;
+
+    // Null for tokens issued before the uid/role claims existed.
+    private final Long userId;
+    private final Role role;
+
+    /* Principal for stateless authentication, when the token carries everything it needs. */
+    public Optional<AuthenticatedUser> principal() {
+        if (subject == null || userId == null || role == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(userId, subject, role));
+    }
+}
@@ -0,0 +1,89 @@
+package com.exam.library_management.security;
+
+import com.exam.library_management.config.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Tokens that already passed {@link JwtUtil#verify}, so a client reusing its bearer token
+ * is not re-verified on every request. Keyed by a SHA-256 digest of the whole token (a
+ * tampered signature is a different key) and never kept past the token's own expiry.
+ * Hit/miss counts are published as the {@code cache.gets} metric for {@code jwt.tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    static final String CACHE_NAME = "jwt.tokens";
+
+    private final JwtUtil jwtUtil;
+
+    // Null when jwt.token-cache.enabled is false: every request is verified.
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        JwtProperties.TokenCache settings = jwtProperties.getTokenCache();
+        if (!settings.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfter(new UntilTokenExpiry(settings.getMaxTtl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /* Same contract as JwtUtil.verify: throws for bad, expired or tampered tokens, which are never cached. */
+    public VerifiedToken verify(String token) {
+        if (cache == null) {
+            return jwtUtil.verify(token);
+        }
+        return cache.get(digest(token), key -> jwtUtil.verify(token));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    // Entry lives until the earlier of the token's exp claim and the configured ceiling.
+    private record UntilTokenExpiry(Duration maxTtl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long ttl = maxTtl.toNanos();
+            if (token.getExpiresAt() != null) {
+                long untilExpiry = Duration.ofMillis(
+                        token.getExpiresAt().getTime() - System.currentTimeMillis()).toNanos();
+                ttl = Math.min(ttl, Math.max(0, untilExpiry));
+            }
+            return ttl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.exam.library_management.service;
 
 import com.exam.library_management.security.JwtUtil;
+import com.exam.library_management.security.UserDetailsCache;
 import com.exam.library_management.dto.LoginRequest;
 import com.exam.library_management.dto.LoginResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import com.exam.library_management.exception.BadRequestException;
 
@@ -20,8 +22,16 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final LoginThrottle loginThrottle;
+    private final UserDetailsCache userDetailsCache;
 
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String clientAddress) {
+
+        // Before authenticate(): a refused attempt must not cost a password hash. A throttled
+        // address is turned away before the login name costs an account lookup.
+        loginThrottle.checkAddress(clientAddress);
+        String throttleKey = throttleKey(request.getUsername());
+        loginThrottle.acquire(throttleKey, clientAddress);
 
         try {
             // Authenticate credentials once and reuse authenticated principal when available.
@@ -35,6 +45,7 @@ public class AuthService {
             UserDetails userDetails = resolveUserDetails(authentication, request.getUsername());
 
             String token = jwtUtil.generateToken(userDetails);
+            loginThrottle.reset(throttleKey);
 
             return new LoginResponse(token);
         } catch (AuthenticationException ex) {
@@ -42,6 +53,24 @@ public class AuthService {
         }
     }
 
+    /*
+     * Email and library id both reach the same account, so attempts are counted against the
+     * account's email: either identifier shares one limit, and a success through one clears
+     * failures made through the other. Known accounts resolve from the cache without a query;
+     * names that match no account are throttled as typed.
+     */
+    private String throttleKey(String username) {
+        if (username == null) {
+            return null;
+        }
+        try {
+            UserDetails account = userDetailsCache.loadUserByUsername(username);
+            return account != null ? account.getUsername() : username;
+        } catch (UsernameNotFoundException ex) {
+            return username;
+        }
+    }
+
     private UserDetails resolveUserDetails(Authentication authentication, String username) {
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
             return userDetails;
@@ -0,0 +1,263 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.event.BookChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes AVAILABLE/BORROWED transitions to server-sent event subscribers.
+ *
+ * The committing thread only records the latest state per book in each subscriber's
+ * pending map and schedules a drain on a small bounded pool. A slow subscriber therefore
+ * sees changes coalesced per book, and once its backlog passes {@code max-pending} it gets
+ * a single "resync" event instead of the backlog. After-commit events can arrive out of
+ * order, so both the pending map and the drain go by the book's version, never by arrival.
+ *
+ * {@code SseEmitter.send} blocks until the container's own socket timeout, so a drain
+ * hands each write to a fixed pool of {@code write-threads} and waits at most
+ * {@code write-timeout}. A write that stalls past it drops the subscriber and frees the
+ * drain worker; the stuck writer closes the emitter once the container gives up on the
+ * socket. While every writer is stuck, further writes are refused and their subscribers
+ * dropped at once, so stalled clients never cost more than the pool's threads.
+ */
+@Slf4j
+@Component
+public class BookAvailabilityBroadcaster implements DisposableBean {
+
+    static final String AVAILABILITY_EVENT = "availability";
+    static final String RESYNC_EVENT = "resync";
+
+    private final LibraryProperties.AvailabilityStream settings;
+    private final ExecutorService senders;
+    private final ExecutorService writers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BookAvailabilityBroadcaster(LibraryProperties libraryProperties) {
+        this(libraryProperties,
+                newSenderPool(libraryProperties.getAvailabilityStream().getWorkers()),
+                newWriterPool(libraryProperties.getAvailabilityStream().getWriteThreads()));
+    }
+
+    BookAvailabilityBroadcaster(LibraryProperties libraryProperties,
+                                ExecutorService senders,
+                                ExecutorService writers) {
+        this.settings = libraryProperties.getAvailabilityStream();
+        this.senders = senders;
+        this.writers = writers;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(settings.getTimeout().toMillis());
+        register(emitter);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Runs on the committing thread: map writes and a queue offer only, never socket I/O.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!event.isStatusChange() || subscribers.isEmpty()) {
+            return;
+        }
+        BookResponse book = event.getBook();
+        PendingChange change = new PendingChange(book, event.getVersion());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.pending.size() >= settings.getMaxPending()
+                    && !subscriber.pending.containsKey(book.getId())) {
+                subscriber.pending.clear();
+                subscriber.resync.set(true);
+            } else {
+                subscriber.pending.merge(book.getId(), change, PendingChange::newer);
+            }
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException ex) {
+            // Pool saturated: the pending state stays and the next change retries.
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resync.getAndSet(false)) {
+                send(subscriber, SseEmitter.event().name(RESYNC_EVENT).data(""));
+            }
+            for (Long bookId : subscriber.pending.keySet()) {
+                PendingChange change = subscriber.pending.remove(bookId);
+                // A newer state may already have gone out before this older event arrived.
+                if (change != null && change.version() > subscriber.sentVersions.getOrDefault(bookId, -1L)) {
+                    send(subscriber, SseEmitter.event()
+                            .name(AVAILABILITY_EVENT)
+                            .data(change.book(), MediaType.APPLICATION_JSON));
+                    subscriber.sentVersions.put(bookId, change.version());
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away (or the emitter already completed): stop tracking it.
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } catch (TimeoutException | RejectedExecutionException ex) {
+            // The socket stopped draining, or every writer is stuck on one that did.
+            log.debug("Dropping availability subscriber after a stalled write");
+            subscribers.remove(subscriber);
+            subscriber.pending.clear();
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // Changes recorded while we were sending found the drain still scheduled; pick them up.
+        if (!subscriber.pending.isEmpty() || subscriber.resync.get()) {
+            schedule(subscriber);
+        }
+    }
+
+    /*
+     * One socket write, bounded by write-timeout; the write itself runs on a writer thread.
+     * A stalled write still holds the emitter's lock, so the emitter is closed by whichever
+     * side finishes last: the writer once its send returns, or this thread if it already has.
+     */
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event)
+            throws IOException, TimeoutException {
+        AtomicBoolean finished = new AtomicBoolean();
+        Future<?> write;
+        try {
+            write = writers.submit(() -> {
+                try {
+                    subscriber.emitter.send(event);
+                } finally {
+                    finished.set(true);
+                    if (subscriber.dropped.get()) {
+                        subscriber.close();
+                    }
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException ex) {
+            subscriber.dropped.set(true);
+            subscriber.close();
+            throw ex;
+        }
+        try {
+            write.get(settings.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            subscriber.dropped.set(true);
+            if (write.cancel(false) || finished.get()) {
+                subscriber.close();
+            }
+            throw ex;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (ex.getCause() instanceof IllegalStateException state) {
+                throw state;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        senders.shutdownNow();
+        writers.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private static ExecutorService newSenderPool(int workers) {
+        int threads = Math.max(1, workers);
+        // Each subscriber has at most one queued drain, so the queue bound caps memory, not fairness.
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10_000),
+                new CustomizableThreadFactory("availability-sse-"));
+    }
+
+    // No queue: a write either gets a thread now or is refused, which drops its subscriber.
+    static ThreadPoolExecutor newWriterPool(int writeThreads) {
+        int threads = Math.max(1, writeThreads);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("availability-sse-write-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private record PendingChange(BookResponse book, long version) {
+
+        static PendingChange newer(PendingChange queued, PendingChange arrived) {
+            return arrived.version >= queued.version ? arrived : queued;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Map<Long, PendingChange> pending = new ConcurrentHashMap<>();
+
+        // Version last written per book; only drains touch it, one at a time per subscriber.
+        private final Map<Long, Long> sentVersions = new ConcurrentHashMap<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean resync = new AtomicBoolean();
+
+        // Set once the subscriber is given up on; the emitter is then closed exactly once.
+        private final AtomicBoolean dropped = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                emitter.completeWithError(new IOException("Availability stream write stalled"));
+            }
+        }
+    }
+}
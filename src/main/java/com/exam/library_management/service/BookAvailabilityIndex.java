@@ -0,0 +1,152 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Process-local view of which books are AVAILABLE, so the user catalog can be
+ * served without a status scan. Loaded once at startup and then kept current
+ * from {@link BookChangedEvent}s after each write commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookAvailabilityIndex implements SmartInitializingSingleton {
+
+    private static final int LOAD_BATCH_SIZE = 1_000;
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Bit n is set while book n is AVAILABLE.
+    private final BitSet available = new BitSet();
+
+    // id -> row table; IDENTITY ids are dense, so a plain array beats a boxed map.
+    private BookResponse[] rows = new BookResponse[0];
+
+    // Highest event version applied per id, plus one (0 = nothing yet). Kept after a delete,
+    // so an older update delivered late cannot bring the row back.
+    private long[] applied = new long[0];
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /* Reloads the whole index from the books table in keyset batches. */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            available.clear();
+            rows = new BookResponse[0];
+            applied = new long[0];
+
+            long lastId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                        lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Book book : batch) {
+                    put(BookResponse.from(book), book.getVersion());
+                    lastId = book.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            log.info("Book availability index loaded: {} available", available.cardinality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(CatalogVersion.VIEW_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            int id = Math.toIntExact(event.getBook().getId());
+            if (id < applied.length && event.getVersion() < applied[id]) {
+                // Committed before a change we already applied; its listener just ran later.
+                return;
+            }
+            if (event.getType() == BookChangedEvent.Type.DELETED) {
+                remove(id, event.getVersion());
+            } else {
+                put(event.getBook(), event.getVersion());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookResponse> availableBooks() {
+        lock.readLock().lock();
+        try {
+            List<BookResponse> result = new ArrayList<>(available.cardinality());
+            for (int id = available.nextSetBit(0); id >= 0; id = available.nextSetBit(id + 1)) {
+                result.add(rows[id]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* Up to {@code limit} available books with id greater than {@code afterId}, in id order. */
+    public List<BookResponse> availableBooksAfter(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<BookResponse> result = new ArrayList<>(limit);
+            if (afterId >= rows.length) {
+                return result;
+            }
+            for (int id = available.nextSetBit((int) afterId + 1);
+                 id >= 0 && result.size() < limit;
+                 id = available.nextSetBit(id + 1)) {
+                result.add(rows[id]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(BookResponse row, long version) {
+        int id = Math.toIntExact(row.getId());
+        grow(id);
+        rows[id] = row;
+        applied[id] = version + 1;
+        available.set(id, row.getStatus() == BookStatus.AVAILABLE);
+    }
+
+    private void remove(int id, long version) {
+        grow(id);
+        rows[id] = null;
+        applied[id] = version + 1;
+        available.clear(id);
+    }
+
+    private void grow(int id) {
+        if (id >= rows.length) {
+            int length = Math.max(id + 1, rows.length + (rows.length >> 1));
+            rows = Arrays.copyOf(rows, length);
+            applied = Arrays.copyOf(applied, length);
+        }
+    }
+}
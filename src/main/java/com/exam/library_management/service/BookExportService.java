@@ -0,0 +1,93 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.enums.BookFileFormat;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog to an output stream row by row from a streaming
+ * projection query; no entities are managed, so memory stays flat with catalog size.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookExportService {
+
+    private static final String CSV_HEADER = "id,bookCode,title,author,status";
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookFileFormat resolveFormat(String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return BookFileFormat.CSV;
+        }
+        if (format == null || format.isBlank() || "ndjson".equalsIgnoreCase(format)) {
+            return BookFileFormat.NDJSON;
+        }
+        throw new BadRequestException("format must be csv or ndjson");
+    }
+
+    /* ADMIN */
+    @Transactional(readOnly = true)
+    public long exportBooks(BookFileFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(BookResponse.class);
+        if (format == BookFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<BookResponse> books = bookRepository.streamAllResponses()) {
+            Iterator<BookResponse> rows = books.iterator();
+            while (rows.hasNext()) {
+                BookResponse book = rows.next();
+                if (format == BookFileFormat.CSV) {
+                    writeCsv(writer, book);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(book));
+                }
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, BookResponse book) throws IOException {
+        writer.write(String.valueOf(book.getId()));
+        writer.write(',');
+        writer.write(csvField(book.getBookCode()));
+        writer.write(',');
+        writer.write(csvField(book.getTitle()));
+        writer.write(',');
+        writer.write(csvField(book.getAuthor()));
+        writer.write(',');
+        writer.write(book.getStatus().name());
+    }
+
+    /* Quotes a value when it contains a delimiter, quote or line break (RFC 4180). */
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
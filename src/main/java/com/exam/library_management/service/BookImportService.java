@@ -0,0 +1,269 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookCreateRequest;
+import com.exam.library_management.dto.BookImportError;
+import com.exam.library_management.dto.BookImportResult;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookFileFormat;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON upload line by line and inserts books in JDBC batches,
+ * one transaction per batch. Only the current batch is held in memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final String DUPLICATE_MESSAGE = "Book with this code already exists";
+
+    // IGNORE turns a unique-key clash into a zero update count instead of failing the whole batch.
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO books (book_code, title, author, status, version) "
+                    + "VALUES (:bookCode, :title, :author, :status, 0)";
+
+    private static final String EXISTING_CODES_SQL =
+            "SELECT book_code FROM books WHERE book_code IN (:codes)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookRepository bookRepository;
+    private final LibraryProperties libraryProperties;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /* ADMIN */
+    public BookImportResult importBooks(Reader source, BookFileFormat format) throws IOException {
+        int batchSize = Math.max(1, libraryProperties.getCatalog().getImportBatchSize());
+        ImportRun run = new ImportRun();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(source);
+        boolean firstRecord = true;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (firstRecord && format == BookFileFormat.CSV && isCsvHeader(line)) {
+                firstRecord = false;
+                continue;
+            }
+            firstRecord = false;
+
+            ImportRow row = format == BookFileFormat.CSV
+                    ? parseCsv(lineNumber, line, run)
+                    : parseJson(lineNumber, line, run);
+            if (row == null) {
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                flush(batch, run);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, run);
+        }
+
+        log.info("Book import finished: {} imported, {} failed", run.imported, run.failed);
+        return new BookImportResult(run.imported, run.failed, run.errors);
+    }
+
+    private void flush(List<ImportRow> batch, ImportRun run) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Codes already stored, or repeated earlier in this batch, are reported up front.
+            Set<String> taken = existingCodes(batch);
+            List<ImportRow> fresh = new ArrayList<>(batch.size());
+            for (ImportRow row : batch) {
+                if (!taken.add(codeKey(row.request().getBookCode()))) {
+                    run.fail(row.line(), row.request().getBookCode(), DUPLICATE_MESSAGE);
+                } else {
+                    fresh.add(row);
+                }
+            }
+            if (fresh.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_SQL, fresh.stream()
+                    .map(BookImportService::insertParameters)
+                    .toArray(SqlParameterSource[]::new));
+
+            // Rewritten multi-row batches report SUCCESS_NO_INFO for every row, ignored or not, so
+            // the rows are read back instead. Under MySQL's default REPEATABLE READ this read uses
+            // the snapshot taken by existingCodes, before the insert: a code a concurrent writer
+            // took in between is invisible here, so every row found was inserted by this batch.
+            Map<String, Book> created = bookRepository.findByBookCodeIn(fresh.stream()
+                            .map(row -> row.request().getBookCode())
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(book -> codeKey(book.getBookCode()), book -> book));
+            for (ImportRow row : fresh) {
+                Book book = created.get(codeKey(row.request().getBookCode()));
+                if (book == null) {
+                    run.fail(row.line(), row.request().getBookCode(), DUPLICATE_MESSAGE);
+                } else {
+                    run.imported++;
+                    // Delivered after this batch commits, so the catalog indexes pick up the new row.
+                    eventPublisher.publishEvent(BookChangedEvent.created(book));
+                }
+            }
+        });
+    }
+
+    private Set<String> existingCodes(List<ImportRow> batch) {
+        List<String> codes = batch.stream()
+                .map(row -> row.request().getBookCode())
+                .distinct()
+                .toList();
+        // book_code uses the table's case-insensitive collation, so compare case-folded.
+        return jdbcTemplate.queryForList(EXISTING_CODES_SQL, Map.of("codes", codes), String.class)
+                .stream()
+                .map(BookImportService::codeKey)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private ImportRow parseCsv(long lineNumber, String line, ImportRun run) {
+        List<String> fields = splitCsv(line);
+        if (fields == null || fields.size() != 3) {
+            run.fail(lineNumber, null, "Expected 3 columns: bookCode,title,author");
+            return null;
+        }
+        BookCreateRequest request = new BookCreateRequest();
+        request.setBookCode(fields.get(0).strip());
+        request.setTitle(fields.get(1).strip());
+        request.setAuthor(fields.get(2).strip());
+        return validate(lineNumber, request, run);
+    }
+
+    private ImportRow parseJson(long lineNumber, String line, ImportRun run) {
+        BookCreateRequest request;
+        try {
+            request = objectMapper.readValue(line, BookCreateRequest.class);
+        } catch (JsonProcessingException ex) {
+            run.fail(lineNumber, null, "Malformed JSON");
+            return null;
+        }
+        return validate(lineNumber, request, run);
+    }
+
+    /* Same constraints as POST /api/admin/books/add. */
+    private ImportRow validate(long lineNumber, BookCreateRequest request, ImportRun run) {
+        Set<ConstraintViolation<BookCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+            run.fail(lineNumber, request.getBookCode(), message);
+            return null;
+        }
+        return new ImportRow(lineNumber, request);
+    }
+
+    private static boolean isCsvHeader(String line) {
+        List<String> fields = splitCsv(line);
+        return fields != null
+                && !fields.isEmpty()
+                && fields.get(0).strip().equalsIgnoreCase("bookCode");
+    }
+
+    /*
+     * Splits one CSV record; quoted fields may contain commas and doubled quotes.
+     * Returns null for an unterminated quote (records cannot span lines).
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static SqlParameterSource insertParameters(ImportRow row) {
+        return new MapSqlParameterSource()
+                .addValue("bookCode", row.request().getBookCode())
+                .addValue("title", row.request().getTitle())
+                .addValue("author", row.request().getAuthor())
+                .addValue("status", BookStatus.AVAILABLE.name());
+    }
+
+    private static String codeKey(String bookCode) {
+        return bookCode.toLowerCase(Locale.ROOT);
+    }
+
+    private record ImportRow(long line, BookCreateRequest request) {
+    }
+
+    private static final class ImportRun {
+
+        private long imported;
+        private long failed;
+        private final List<BookImportError> errors = new ArrayList<>();
+
+        void fail(long line, String bookCode, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportError(line, bookCode, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.dto.BookSearchResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over book titles and authors. Terms are lower-cased,
+ * accent-folded tokens kept in sorted dictionaries, so every query token also
+ * matches as a prefix with a single range lookup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex implements SmartInitializingSingleton {
+
+    private static final int LOAD_BATCH_SIZE = 1_000;
+
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double AUTHOR_WEIGHT = 1.0;
+
+    // A term that merely starts with the query token scores below an exact token hit.
+    private static final double PREFIX_FACTOR = 0.5;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Hit> BEST_FIRST =
+            Comparator.comparingDouble(Hit::score).reversed().thenComparingInt(Hit::id);
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postings> titleTerms = new TreeMap<>();
+    private final TreeMap<String, Postings> authorTerms = new TreeMap<>();
+    private final Map<Integer, IndexedBook> books = new HashMap<>();
+
+    // Highest event version applied per id, kept after a delete so a late older update is dropped.
+    private final Map<Integer, Long> appliedVersions = new HashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            titleTerms.clear();
+            authorTerms.clear();
+            books.clear();
+            appliedVersions.clear();
+
+            long lastId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                        lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Book book : batch) {
+                    index(BookResponse.from(book));
+                    appliedVersions.put(Math.toIntExact(book.getId()), book.getVersion());
+                    lastId = book.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            log.info("Book search index loaded: {} books, {} title terms, {} author terms",
+                    books.size(), titleTerms.size(), authorTerms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(CatalogVersion.VIEW_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            int id = Math.toIntExact(event.getBook().getId());
+            Long applied = appliedVersions.get(id);
+            if (applied != null && event.getVersion() <= applied) {
+                // Committed before a change we already applied; its listener just ran later.
+                return;
+            }
+            appliedVersions.put(id, event.getVersion());
+            if (event.getType() == BookChangedEvent.Type.DELETED) {
+                remove(id);
+            } else {
+                index(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Every query token must match the title or the author (AND semantics).
+     * Results are ranked by field weight, exact-vs-prefix match and term rarity.
+     */
+    public BookSearchResponse search(String query, int page, int size) {
+        Set<String> queryTokens = new LinkedHashSet<>(tokenize(query));
+        if (queryTokens.isEmpty()) {
+            return new BookSearchResponse(0, page, size, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            Matches matches = null;
+            for (String token : queryTokens) {
+                Matches tokenMatches = collect(token);
+                matches = matches == null ? tokenMatches : matches.intersect(tokenMatches);
+                if (matches.size == 0) {
+                    break;
+                }
+            }
+
+            int total = matches.size;
+            long from = (long) page * size;
+            if (from >= total) {
+                return new BookSearchResponse(total, page, size, List.of());
+            }
+            int keep = (int) Math.min(total, from + size);
+
+            // Bounded heap with the weakest kept hit on top: O(n log k) instead of sorting every match.
+            PriorityQueue<Hit> top = new PriorityQueue<>(keep + 1, BEST_FIRST.reversed());
+            for (int i = 0; i < matches.size; i++) {
+                if (top.size() == keep && matches.scores[i] <= top.peek().score()) {
+                    continue;
+                }
+                top.add(new Hit(matches.ids[i], matches.scores[i]));
+                if (top.size() > keep) {
+                    top.poll();
+                }
+            }
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(BEST_FIRST);
+
+            List<BookResponse> items = new ArrayList<>(keep - (int) from);
+            for (Hit hit : ranked.subList((int) from, keep)) {
+                items.add(books.get(hit.id()).row());
+            }
+            return new BookSearchResponse(total, page, size, items);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = isAscii(text)
+                ? text.toLowerCase(Locale.ROOT)
+                : COMBINING_MARKS
+                        .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                        .replaceAll("")
+                        .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Gathers every posting of every term starting with the token, in both fields.
+     * Entries are packed as (id << 32 | float score bits) so one primitive sort
+     * groups them by id with the best score last.
+     */
+    private Matches collect(String token) {
+        int documentCount = Math.max(books.size(), 1);
+        List<Map<String, Postings>> fields = List.of(
+                titleTerms.subMap(token, true, token + Character.MAX_VALUE, false),
+                authorTerms.subMap(token, true, token + Character.MAX_VALUE, false));
+        double[] weights = {TITLE_WEIGHT, AUTHOR_WEIGHT};
+
+        int total = 0;
+        int lists = 0;
+        for (Map<String, Postings> field : fields) {
+            for (Postings postings : field.values()) {
+                total += postings.size();
+                lists++;
+            }
+        }
+
+        long[] packed = new long[total];
+        int n = 0;
+        for (int f = 0; f < fields.size(); f++) {
+            for (Map.Entry<String, Postings> term : fields.get(f).entrySet()) {
+                Postings postings = term.getValue();
+                double idf = Math.log(1.0 + (double) documentCount / postings.size());
+                float termScore = (float) (weights[f] * idf
+                        * (term.getKey().length() == token.length() ? 1.0 : PREFIX_FACTOR));
+                int scoreBits = Float.floatToIntBits(termScore);
+                for (int i = 0; i < postings.size(); i++) {
+                    packed[n++] = ((long) postings.get(i) << 32) | (scoreBits & 0xFFFFFFFFL);
+                }
+            }
+        }
+        if (lists > 1) {
+            Arrays.sort(packed);
+        }
+
+        int[] ids = new int[total];
+        float[] scores = new float[total];
+        int size = 0;
+        for (long entry : packed) {
+            int id = (int) (entry >>> 32);
+            float score = Float.intBitsToFloat((int) entry);
+            if (size > 0 && ids[size - 1] == id) {
+                scores[size - 1] = Math.max(scores[size - 1], score);
+            } else {
+                ids[size] = id;
+                scores[size] = score;
+                size++;
+            }
+        }
+        return new Matches(ids, scores, size);
+    }
+
+    private void index(BookResponse row) {
+        int id = Math.toIntExact(row.getId());
+        Set<String> titleTokens = new LinkedHashSet<>(tokenize(row.getTitle()));
+        Set<String> authorTokens = new LinkedHashSet<>(tokenize(row.getAuthor()));
+
+        IndexedBook previous = books.put(id, new IndexedBook(row, titleTokens, authorTokens));
+        if (previous != null
+                && previous.titleTokens().equals(titleTokens)
+                && previous.authorTokens().equals(authorTokens)) {
+            // Status-only change (borrow/return): postings are unaffected.
+            return;
+        }
+        if (previous != null) {
+            unpost(titleTerms, previous.titleTokens(), id);
+            unpost(authorTerms, previous.authorTokens(), id);
+        }
+        post(titleTerms, titleTokens, id);
+        post(authorTerms, authorTokens, id);
+    }
+
+    private void remove(int id) {
+        IndexedBook previous = books.remove(id);
+        if (previous != null) {
+            unpost(titleTerms, previous.titleTokens(), id);
+            unpost(authorTerms, previous.authorTokens(), id);
+        }
+    }
+
+    private static void post(TreeMap<String, Postings> terms, Set<String> tokens, int id) {
+        for (String token : tokens) {
+            terms.computeIfAbsent(token, ignored -> new Postings()).add(id);
+        }
+    }
+
+    private static void unpost(TreeMap<String, Postings> terms, Set<String> tokens, int id) {
+        for (String token : tokens) {
+            Postings postings = terms.get(token);
+            if (postings != null && postings.remove(id) && postings.size() == 0) {
+                terms.remove(token);
+            }
+        }
+    }
+
+    private record IndexedBook(BookResponse row, Set<String> titleTokens, Set<String> authorTokens) {
+    }
+
+    private record Hit(int id, float score) {
+    }
+
+    /* Matching book ids in ascending order with their accumulated scores. */
+    private static final class Matches {
+
+        private final int[] ids;
+        private final float[] scores;
+        private final int size;
+
+        Matches(int[] ids, float[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        /* Linear merge of two sorted id lists, summing scores of books present in both. */
+        Matches intersect(Matches other) {
+            int capacity = Math.min(size, other.size);
+            int[] mergedIds = new int[capacity];
+            float[] mergedScores = new float[capacity];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    mergedIds[n] = ids[i];
+                    mergedScores[n] = scores[i] + other.scores[j];
+                    n++;
+                    i++;
+                    j++;
+                }
+            }
+            return new Matches(mergedIds, mergedScores, n);
+        }
+    }
+
+    /* Sorted, growable int list of book ids; bulk loads in id order append at the tail. */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return ids[index];
+        }
+    }
+}
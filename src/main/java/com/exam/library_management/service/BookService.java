@@ -1,13 +1,22 @@
 package com.exam.library_management.service;
 
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookChangesResponse;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.dto.BookSearchResponse;
+import com.exam.library_management.dto.CursorPage;
 import com.exam.library_management.entity.Book;
 import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
 import com.exam.library_management.repository.BookRepository;
 import com.exam.library_management.exception.BadRequestException;
 import com.exam.library_management.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -18,13 +27,20 @@ import java.util.List;
 public class BookService {
 
     private final BookRepository bookRepository;
+    private final LibraryProperties libraryProperties;
+    private final BookAvailabilityIndex bookAvailabilityIndex;
+    private final BookSearchIndex bookSearchIndex;
+    private final CatalogChangeLog catalogChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
 
     /* ADMIN */
     @Transactional
     public Book addBook(Book book) {
         try {
             book.setStatus(BookStatus.AVAILABLE);
-            return bookRepository.save(book);
+            Book saved = bookRepository.save(book);
+            eventPublisher.publishEvent(BookChangedEvent.created(saved));
+            return saved;
         } catch (DataIntegrityViolationException ex) {
             throw new BadRequestException("Book with this code already exists");
         }
@@ -33,7 +49,8 @@ public class BookService {
     /* ADMIN */
     @Transactional
     public Book updateBook(Long id, Book updated) {
-        Book book = bookRepository.findById(id)
+        // Locked like every other book write, so the version bump below cannot race a borrow.
+        Book book = bookRepository.lockById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
 
         if (updated.getTitle() == null
@@ -43,6 +60,8 @@ public class BookService {
             return book;
         }
 
+        BookStatus previousStatus = book.getStatus();
+
         if (updated.getTitle() != null) {
             book.setTitle(updated.getTitle());
         }
@@ -54,16 +73,19 @@ public class BookService {
         if (updated.getStatus() != null) {
             book.setStatus(updated.getStatus());
         }
+        book.setVersion(book.getVersion() + 1);
+        eventPublisher.publishEvent(BookChangedEvent.updated(book, previousStatus));
         return book;
     }
 
     /* ADMIN */
     @Transactional
     public void deleteBook(Long id) {
-        Book book = bookRepository.findById(id)
+        Book book = bookRepository.lockById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
         try {
             bookRepository.delete(book);
+            eventPublisher.publishEvent(BookChangedEvent.deleted(book));
         } catch (DataIntegrityViolationException ex) {
             throw new BadRequestException(
                     "Cannot delete book because it is linked to borrow records"
@@ -72,12 +94,62 @@ public class BookService {
     }
 
     /* ADMIN */
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    public List<BookResponse> getAllBooks() {
+        return bookRepository.findAllResponses();
+    }
+
+    /* ADMIN */
+    public CursorPage<BookResponse> getAllBooks(String cursor, int size) {
+        int limit = pageLimit(size);
+        List<BookResponse> rows = bookRepository.findResponsesAfter(
+                CatalogCursor.decode(cursor), PageRequest.of(0, limit + 1));
+        return CatalogCursor.page(rows, limit, BookResponse::getId);
+    }
+
+    /* ADMIN */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BookChangesResponse getChangesSince(Long since, int size) {
+        if (since == null) {
+            throw new BadRequestException("since is required");
+        }
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        return catalogChangeLog.changesSince(since, pageLimit(size));
+    }
+
+    /* USER */
+    // Served from the in-memory index; NOT_SUPPORTED keeps the read from borrowing a connection.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookResponse> getAvailableBooks() {
+        return bookAvailabilityIndex.availableBooks();
+    }
+
+    /* USER */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<BookResponse> getAvailableBooks(String cursor, int size) {
+        int limit = pageLimit(size);
+        List<BookResponse> rows = bookAvailabilityIndex.availableBooksAfter(
+                CatalogCursor.decode(cursor), limit + 1);
+        return CatalogCursor.page(rows, limit, BookResponse::getId);
     }
 
     /* USER */
-    public List<Book> getAvailableBooks() {
-        return bookRepository.findByStatus(BookStatus.AVAILABLE);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BookSearchResponse searchBooks(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q is required");
+        }
+        if (page < 0) {
+            throw new BadRequestException("page must not be negative");
+        }
+        return bookSearchIndex.search(query, page, pageLimit(size));
+    }
+
+    private int pageLimit(int size) {
+        if (size < 1) {
+            throw new BadRequestException("size must be at least 1");
+        }
+        return Math.min(size, libraryProperties.getCatalog().getMaxPageSize());
     }
 }
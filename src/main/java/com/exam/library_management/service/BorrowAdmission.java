@@ -0,0 +1,140 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission layer in front of {@link BorrowService#borrowBook}: borrows are queued on a
+ * fair lock per book id, so only one request per book holds a connection and the book's
+ * row lock at a time, and a hot book never delays borrows of any other book.
+ *
+ * A book's queue exists only while requests for it are in flight and is dropped by the
+ * last one out, so the map is bounded by concurrent borrow requests, not by the catalog.
+ *
+ * Once a borrow succeeds, requests that were already queued for that book fail fast
+ * without touching the database. Requests arriving later still go through the guarded
+ * UPDATE, which stays the source of truth (a return may have happened in between).
+ */
+@Component
+public class BorrowAdmission {
+
+    static final String NOT_AVAILABLE_MESSAGE = "This book is currently not available for borrowing";
+    static final String BUSY_MESSAGE = "This book is in high demand. Please try again shortly.";
+
+    private final Map<Long, BookQueue> queues = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final AtomicLong tickets = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer admittedWait;
+    private final Timer timedOutWait;
+    private final Counter claimedRejections;
+    private final Counter timeoutRejections;
+
+    public BorrowAdmission(LibraryProperties libraryProperties, MeterRegistry meterRegistry) {
+        this.maxWait = libraryProperties.getBorrowAdmission().getMaxWait();
+        this.admittedWait = waitTimer(meterRegistry, "admitted");
+        this.timedOutWait = waitTimer(meterRegistry, "timeout");
+        Gauge.builder("library.borrow.admission.queue", waiting, AtomicInteger::get)
+                .description("Borrow requests currently waiting for their book")
+                .register(meterRegistry);
+        this.claimedRejections = rejections(meterRegistry, "claimed");
+        this.timeoutRejections = rejections(meterRegistry, "timeout");
+    }
+
+    public <T> T admit(long bookId, Supplier<T> borrow) {
+        BookQueue queue = join(bookId);
+        try {
+            long ticket = tickets.incrementAndGet();
+
+            long queuedAt = System.nanoTime();
+            boolean acquired;
+            waiting.incrementAndGet();
+            try {
+                acquired = queue.lock.tryLock(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                waiting.decrementAndGet();
+            }
+            (acquired ? admittedWait : timedOutWait).record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                timeoutRejections.increment();
+                throw new ServiceBusyException(BUSY_MESSAGE);
+            }
+
+            try {
+                // Claimed after this request queued: the database would only say the same thing.
+                if (queue.claimedAt > ticket) {
+                    claimedRejections.increment();
+                    throw new BadRequestException(NOT_AVAILABLE_MESSAGE);
+                }
+                T result = borrow.get();
+                queue.claimedAt = tickets.incrementAndGet();
+                return result;
+            } finally {
+                queue.lock.unlock();
+            }
+        } finally {
+            leave(bookId);
+        }
+    }
+
+    // Books with requests in flight; the queue of a book goes away with its last request.
+    int trackedBooks() {
+        return queues.size();
+    }
+
+    private BookQueue join(long bookId) {
+        return queues.compute(bookId, (id, queue) -> {
+            BookQueue joined = queue == null ? new BookQueue() : queue;
+            joined.members++;
+            return joined;
+        });
+    }
+
+    // Nobody left behind us who could be fast-failed, so the queue and its claim can go.
+    private void leave(long bookId) {
+        queues.computeIfPresent(bookId, (id, queue) -> --queue.members == 0 ? null : queue);
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("library.borrow.admission.wait")
+                .description("Time borrow requests spent queued for their book")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("library.borrow.admission.rejected")
+                .description("Borrow requests turned away before reaching the database")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class BookQueue {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+
+        // Requests that joined and have not left yet; only touched inside the map's compute.
+        private int members;
+
+        // Ticket at which the book was claimed, 0 if not yet; only touched while holding the lock.
+        private long claimedAt;
+    }
+}
@@ -0,0 +1,494 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BorrowBatchItem;
+import com.exam.library_management.dto.BorrowBatchItemResult;
+import com.exam.library_management.dto.BorrowBatchResult;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.event.HoldQueueChangedEvent;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch borrow and return for front-desk terminals. Items run in chunks, one transaction
+ * and a few JDBC batches per chunk, against one date and fee snapshot taken per request.
+ * An item that breaks a borrowing rule fails on its own; the rest of its chunk goes through.
+ *
+ * Each chunk locks its book rows first (in id order), the same row lock the single-item
+ * borrow, return and hold paths take before they read anything, so the rules checked here
+ * cannot change underneath. Both return paths also close a loan only while its return_date
+ * is still NULL, so a loan returned at the desk and by its borrower at once closes once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BorrowBatchService {
+
+    static final String RETRY_MESSAGE = "This item could not be processed. Please retry it";
+    static final String ACTIVE_LOAN_MESSAGE = "You already have a borrowed book. Please return it first.";
+    static final String NOT_BORROWED_MESSAGE = "This book is not currently borrowed";
+
+    private static final String LOCK_BOOKS_SQL =
+            "SELECT id, status FROM books WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String USER_ROLES_SQL =
+            "SELECT id, role FROM users WHERE id IN (:ids)";
+
+    // active_user_id carries the unique active-loan key, so this is an index lookup.
+    private static final String LOANS_BY_USER_SQL =
+            "SELECT id, active_user_id AS user_id, book_id, due_date FROM borrow_records "
+                    + "WHERE active_user_id IN (:ids)";
+
+    private static final String LOANS_BY_BOOK_SQL =
+            "SELECT id, user_id, book_id, due_date FROM borrow_records "
+                    + "WHERE book_id IN (:ids) AND return_date IS NULL";
+
+    private static final String READY_HOLDS_SQL =
+            "SELECT id, user_id, book_id FROM holds "
+                    + "WHERE book_id IN (:ids) AND status = 'READY' AND ready_until >= :now";
+
+    private static final String WAITLIST_HEADS_SQL =
+            "SELECT MIN(id) AS id, book_id FROM holds "
+                    + "WHERE book_id IN (:ids) AND status = 'WAITING' GROUP BY book_id";
+
+    // IGNORE: a loan opened meanwhile through the single endpoint turns the row into a no-op
+    // instead of failing the chunk; the loans are read back to see which rows landed.
+    private static final String INSERT_LOAN_SQL =
+            "INSERT IGNORE INTO borrow_records (user_id, book_id, borrow_date, due_date) "
+                    + "VALUES (:userId, :bookId, :borrowDate, :dueDate)";
+
+    private static final String CLOSE_LOAN_SQL =
+            "UPDATE borrow_records SET return_date = :returnDate, late_fee = :lateFee "
+                    + "WHERE id = :id AND return_date IS NULL";
+
+    private static final String SET_BOOK_STATUS_SQL =
+            "UPDATE books SET status = :status, version = version + 1 WHERE id = :id";
+
+    private static final String FULFILL_HOLD_SQL =
+            "UPDATE holds SET status = 'FULFILLED' WHERE id = :id AND status = 'READY'";
+
+    private static final String MARK_HOLD_READY_SQL =
+            "UPDATE holds SET status = 'READY', ready_until = :readyUntil WHERE id = :id AND status = 'WAITING'";
+
+    // Same upserts as MonthlyActivityRepository.recordBorrow/recordReturn.
+    private static final String RECORD_BORROW_SQL =
+            "INSERT INTO monthly_activity (activity_month, user_id, book_id, borrowed_count, returned_count, late_fees) "
+                    + "VALUES (:month, :userId, :bookId, 1, 0, 0) "
+                    + "ON DUPLICATE KEY UPDATE borrowed_count = borrowed_count + 1";
+
+    private static final String RECORD_RETURN_SQL =
+            "INSERT INTO monthly_activity (activity_month, user_id, book_id, borrowed_count, returned_count, late_fees) "
+                    + "VALUES (:month, :userId, :bookId, 0, 1, :lateFee) "
+                    + "ON DUPLICATE KEY UPDATE returned_count = returned_count + 1, late_fees = late_fees + :lateFee";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookRepository bookRepository;
+    private final LibraryProperties libraryProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /* ADMIN */
+    public BorrowBatchResult borrowBooks(List<BorrowBatchItem> items) {
+        return run(items, this::borrowChunk);
+    }
+
+    /* ADMIN */
+    public BorrowBatchResult returnBooks(List<BorrowBatchItem> items) {
+        return run(items, this::returnChunk);
+    }
+
+    private BorrowBatchResult run(List<BorrowBatchItem> items, ChunkHandler handler) {
+        LibraryProperties.BorrowBatch settings = libraryProperties.getBorrowBatch();
+        if (items.size() > settings.getMaxItems()) {
+            throw new BadRequestException("A batch may contain at most " + settings.getMaxItems() + " items");
+        }
+
+        Snapshot snapshot = new Snapshot(
+                LocalDate.now(),
+                LocalDateTime.now(),
+                libraryProperties.getBorrowDurationDays(),
+                BigDecimal.valueOf(libraryProperties.getLateFeePerDay()),
+                libraryProperties.getHolds().getPickupWindow());
+
+        List<Slot> slots = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            slots.add(new Slot(i, items.get(i)));
+        }
+
+        int chunkSize = Math.max(1, settings.getChunkSize());
+        for (int from = 0; from < slots.size(); from += chunkSize) {
+            List<Slot> chunk = slots.subList(from, Math.min(from + chunkSize, slots.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> handler.process(chunk, snapshot));
+            } catch (DataAccessException | TransactionException ex) {
+                // The whole chunk rolled back (lock wait timeout, deadlock victim); later chunks still run.
+                log.warn("Borrow batch chunk of {} items rolled back", chunk.size(), ex);
+                chunk.forEach(slot -> slot.fail(RETRY_MESSAGE));
+            }
+        }
+
+        long succeeded = slots.stream().filter(slot -> slot.success).count();
+        log.info("Borrow batch finished: {} succeeded, {} failed", succeeded, slots.size() - succeeded);
+        return new BorrowBatchResult(
+                succeeded,
+                slots.size() - succeeded,
+                slots.stream().map(Slot::toResult).toList());
+    }
+
+    /* =========================
+       BORROW
+       ========================= */
+    private void borrowChunk(List<Slot> chunk, Snapshot snapshot) {
+        Map<Long, BookStatus> books = lockBooks(chunk);
+        Map<Long, String> roles = userRoles(chunk);
+        Set<Long> borrowers = new HashSet<>(loansByUser(userIds(chunk)).keySet());
+        Map<Long, ReadyHold> readyHolds = books.containsValue(BookStatus.RESERVED)
+                ? readyHolds(books.keySet(), snapshot.now())
+                : Map.of();
+
+        // Same rules, in the same order, as BorrowService.borrowBook.
+        Set<Long> claimed = new HashSet<>();
+        List<Slot> accepted = new ArrayList<>(chunk.size());
+        for (Slot slot : chunk) {
+            Long userId = slot.item.getUserId();
+            Long bookId = slot.item.getBookId();
+            String role = roles.get(userId);
+            BookStatus status = books.get(bookId);
+            if (role == null) {
+                slot.fail("User not found");
+            } else if (!Role.USER.name().equals(role)) {
+                slot.fail("Only library members can borrow books");
+            } else if (status == null) {
+                slot.fail("Book not found");
+            } else if (claimed.contains(bookId) || !claimable(status, readyHolds.get(bookId), userId)) {
+                slot.fail(BorrowAdmission.NOT_AVAILABLE_MESSAGE);
+            } else if (!borrowers.add(userId)) {
+                slot.fail(ACTIVE_LOAN_MESSAGE);
+            } else {
+                claimed.add(bookId);
+                accepted.add(slot);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        LocalDate dueDate = snapshot.today().plusDays(snapshot.borrowDays());
+        jdbcTemplate.batchUpdate(INSERT_LOAN_SQL, accepted.stream()
+                .map(slot -> new MapSqlParameterSource()
+                        .addValue("userId", slot.item.getUserId())
+                        .addValue("bookId", slot.item.getBookId())
+                        .addValue("borrowDate", snapshot.today())
+                        .addValue("dueDate", dueDate))
+                .toArray(SqlParameterSource[]::new));
+
+        // Rewritten multi-row inserts do not report per-row counts, so read back what landed.
+        Map<Long, Loan> opened = loansByUser(accepted.stream().map(slot -> slot.item.getUserId()).toList());
+        Map<Long, BookStatus> previous = new LinkedHashMap<>();
+        List<SqlParameterSource> bookUpdates = new ArrayList<>(accepted.size());
+        List<SqlParameterSource> holdUpdates = new ArrayList<>();
+        for (Slot slot : accepted) {
+            Long bookId = slot.item.getBookId();
+            Loan loan = opened.get(slot.item.getUserId());
+            if (loan == null || !loan.bookId().equals(bookId)) {
+                slot.fail(ACTIVE_LOAN_MESSAGE);
+                continue;
+            }
+            slot.succeed(loan.id(), loan.dueDate(), null);
+            previous.put(bookId, books.get(bookId));
+            bookUpdates.add(statusParameters(bookId, BookStatus.BORROWED));
+            if (books.get(bookId) == BookStatus.RESERVED) {
+                holdUpdates.add(new MapSqlParameterSource("id", readyHolds.get(bookId).id()));
+            }
+        }
+
+        batchUpdate(SET_BOOK_STATUS_SQL, bookUpdates);
+        batchUpdate(FULFILL_HOLD_SQL, holdUpdates);
+        recordActivity(RECORD_BORROW_SQL, chunk, snapshot);
+        publishBookChanges(previous);
+    }
+
+    private static boolean claimable(BookStatus status, ReadyHold readyHold, Long userId) {
+        return status == BookStatus.AVAILABLE
+                || (status == BookStatus.RESERVED && readyHold != null && readyHold.userId().equals(userId));
+    }
+
+    /* =========================
+       RETURN
+       ========================= */
+    private void returnChunk(List<Slot> chunk, Snapshot snapshot) {
+        Map<Long, BookStatus> books = lockBooks(chunk);
+        Map<Long, Loan> loans = loansByBook(books.keySet());
+
+        List<Slot> accepted = new ArrayList<>(chunk.size());
+        List<SqlParameterSource> closes = new ArrayList<>(chunk.size());
+        for (Slot slot : chunk) {
+            Long bookId = slot.item.getBookId();
+            Loan loan = loans.get(bookId);
+            if (!books.containsKey(bookId)) {
+                slot.fail("Book not found");
+            } else if (loan == null) {
+                slot.fail(NOT_BORROWED_MESSAGE);
+            } else if (!loan.userId().equals(slot.item.getUserId())) {
+                slot.fail("This book is not borrowed by this user");
+            } else {
+                // A second item for the same book in this chunk finds nothing left to return.
+                loans.remove(bookId);
+                BigDecimal lateFee = lateFee(loan.dueDate(), snapshot);
+                slot.succeed(loan.id(), loan.dueDate(), lateFee);
+                accepted.add(slot);
+                closes.add(new MapSqlParameterSource()
+                        .addValue("id", loan.id())
+                        .addValue("returnDate", snapshot.today())
+                        .addValue("lateFee", lateFee));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(CLOSE_LOAN_SQL, closes.toArray(SqlParameterSource[]::new));
+        List<Long> returned = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            if (applied(counts[i])) {
+                returned.add(accepted.get(i).item.getBookId());
+            } else {
+                accepted.get(i).fail(NOT_BORROWED_MESSAGE);
+            }
+        }
+        if (returned.isEmpty()) {
+            return;
+        }
+
+        // Same handoff as BorrowService.returnBook: the oldest waiter gets the book RESERVED.
+        Map<Long, Long> heads = waitlistHeads(returned);
+        LocalDateTime readyUntil = snapshot.now().plus(snapshot.pickupWindow());
+        Map<Long, BookStatus> previous = new LinkedHashMap<>();
+        List<SqlParameterSource> bookUpdates = new ArrayList<>(returned.size());
+        List<SqlParameterSource> holdUpdates = new ArrayList<>(heads.size());
+        for (Long bookId : returned) {
+            Long holdId = heads.get(bookId);
+            previous.put(bookId, books.get(bookId));
+            bookUpdates.add(statusParameters(bookId, holdId != null ? BookStatus.RESERVED : BookStatus.AVAILABLE));
+            if (holdId != null) {
+                holdUpdates.add(new MapSqlParameterSource()
+                        .addValue("id", holdId)
+                        .addValue("readyUntil", readyUntil));
+            }
+        }
+
+        batchUpdate(SET_BOOK_STATUS_SQL, bookUpdates);
+        batchUpdate(MARK_HOLD_READY_SQL, holdUpdates);
+        recordActivity(RECORD_RETURN_SQL, chunk, snapshot);
+        heads.keySet().forEach(bookId -> eventPublisher.publishEvent(new HoldQueueChangedEvent(bookId)));
+        publishBookChanges(previous);
+    }
+
+    private static BigDecimal lateFee(LocalDate dueDate, Snapshot snapshot) {
+        if (!snapshot.today().isAfter(dueDate)) {
+            return BigDecimal.ZERO;
+        }
+        long daysLate = ChronoUnit.DAYS.between(dueDate, snapshot.today());
+        return BigDecimal.valueOf(daysLate).multiply(snapshot.lateFeePerDay());
+    }
+
+    /* =========================
+       QUERIES
+       ========================= */
+    private Map<Long, BookStatus> lockBooks(List<Slot> chunk) {
+        List<Long> ids = chunk.stream().map(slot -> slot.item.getBookId()).distinct().toList();
+        Map<Long, BookStatus> statuses = new HashMap<>();
+        jdbcTemplate.query(LOCK_BOOKS_SQL, Map.of("ids", ids), (RowCallbackHandler) rs ->
+                statuses.put(rs.getLong("id"), BookStatus.valueOf(rs.getString("status"))));
+        return statuses;
+    }
+
+    private Map<Long, String> userRoles(List<Slot> chunk) {
+        Map<Long, String> roles = new HashMap<>();
+        jdbcTemplate.query(USER_ROLES_SQL, Map.of("ids", userIds(chunk)), (RowCallbackHandler) rs ->
+                roles.put(rs.getLong("id"), rs.getString("role")));
+        return roles;
+    }
+
+    // userId -> open loan
+    private Map<Long, Loan> loansByUser(Collection<Long> userIds) {
+        Map<Long, Loan> loans = new HashMap<>();
+        jdbcTemplate.query(LOANS_BY_USER_SQL, Map.of("ids", userIds), (RowCallbackHandler) rs -> {
+            Loan loan = loan(rs);
+            loans.put(loan.userId(), loan);
+        });
+        return loans;
+    }
+
+    // bookId -> open loan
+    private Map<Long, Loan> loansByBook(Collection<Long> bookIds) {
+        Map<Long, Loan> loans = new HashMap<>();
+        if (bookIds.isEmpty()) {
+            return loans;
+        }
+        jdbcTemplate.query(LOANS_BY_BOOK_SQL, Map.of("ids", bookIds), (RowCallbackHandler) rs -> {
+            Loan loan = loan(rs);
+            loans.put(loan.bookId(), loan);
+        });
+        return loans;
+    }
+
+    // bookId -> READY hold still inside its pickup window
+    private Map<Long, ReadyHold> readyHolds(Collection<Long> bookIds, LocalDateTime now) {
+        Map<Long, ReadyHold> holds = new HashMap<>();
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ids", bookIds)
+                .addValue("now", now);
+        jdbcTemplate.query(READY_HOLDS_SQL, parameters, (RowCallbackHandler) rs ->
+                holds.put(rs.getLong("book_id"), new ReadyHold(rs.getLong("id"), rs.getLong("user_id"))));
+        return holds;
+    }
+
+    // bookId -> oldest WAITING hold id
+    private Map<Long, Long> waitlistHeads(Collection<Long> bookIds) {
+        Map<Long, Long> heads = new HashMap<>();
+        jdbcTemplate.query(WAITLIST_HEADS_SQL, Map.of("ids", bookIds), (RowCallbackHandler) rs ->
+                heads.put(rs.getLong("book_id"), rs.getLong("id")));
+        return heads;
+    }
+
+    private static Loan loan(ResultSet rs) throws SQLException {
+        return new Loan(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getLong("book_id"),
+                rs.getObject("due_date", LocalDate.class));
+    }
+
+    private static List<Long> userIds(List<Slot> chunk) {
+        return chunk.stream().map(slot -> slot.item.getUserId()).distinct().toList();
+    }
+
+    // Rollup rows are upserted in (user, book) order so concurrent chunks lock them in the same order.
+    private void recordActivity(String sql, List<Slot> chunk, Snapshot snapshot) {
+        LocalDate month = snapshot.today().withDayOfMonth(1);
+        batchUpdate(sql, chunk.stream()
+                .filter(slot -> slot.success)
+                .sorted(Comparator.comparing((Slot slot) -> slot.item.getUserId())
+                        .thenComparing(slot -> slot.item.getBookId()))
+                .map(slot -> (SqlParameterSource) new MapSqlParameterSource()
+                        .addValue("month", month)
+                        .addValue("userId", slot.item.getUserId())
+                        .addValue("bookId", slot.item.getBookId())
+                        .addValue("lateFee", slot.lateFee))
+                .toList());
+    }
+
+    private void batchUpdate(String sql, List<SqlParameterSource> parameters) {
+        if (!parameters.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, parameters.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private static SqlParameterSource statusParameters(Long bookId, BookStatus status) {
+        return new MapSqlParameterSource()
+                .addValue("id", bookId)
+                .addValue("status", status.name());
+    }
+
+    // Delivered after the chunk commits, so the catalog indexes and SSE feed follow.
+    private void publishBookChanges(Map<Long, BookStatus> previous) {
+        if (previous.isEmpty()) {
+            return;
+        }
+        bookRepository.findAllById(previous.keySet())
+                .forEach(book -> eventPublisher.publishEvent(
+                        BookChangedEvent.updated(book, previous.get(book.getId()))));
+    }
+
+    private static boolean applied(int count) {
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+
+    @FunctionalInterface
+    private interface ChunkHandler {
+        void process(List<Slot> chunk, Snapshot snapshot);
+    }
+
+    // Taken once per request so every item sees the same date and fee settings.
+    private record Snapshot(LocalDate today,
+                            LocalDateTime now,
+                            int borrowDays,
+                            BigDecimal lateFeePerDay,
+                            Duration pickupWindow) {
+    }
+
+    private record Loan(Long id, Long userId, Long bookId, LocalDate dueDate) {
+    }
+
+    private record ReadyHold(Long id, Long userId) {
+    }
+
+    private static final class Slot {
+
+        private final int index;
+        private final BorrowBatchItem item;
+        private boolean success;
+        private Long recordId;
+        private LocalDate dueDate;
+        private BigDecimal lateFee;
+        private String message;
+
+        Slot(int index, BorrowBatchItem item) {
+            this.index = index;
+            this.item = item;
+        }
+
+        void succeed(Long recordId, LocalDate dueDate, BigDecimal lateFee) {
+            this.success = true;
+            this.recordId = recordId;
+            this.dueDate = dueDate;
+            this.lateFee = lateFee;
+            this.message = null;
+        }
+
+        void fail(String message) {
+            this.success = false;
+            this.recordId = null;
+            this.dueDate = null;
+            this.lateFee = null;
+            this.message = message;
+        }
+
+        BorrowBatchItemResult toResult() {
+            return new BorrowBatchItemResult(index, item.getUserId(), item.getBookId(),
+                    success, recordId, dueDate, lateFee, message);
+        }
+    }
+}
@@ -5,13 +5,17 @@ import com.exam.library_management.entity.Book;
 import com.exam.library_management.entity.BorrowRecord;
 import com.exam.library_management.entity.User;
 import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
 import com.exam.library_management.exception.BadRequestException;
 import com.exam.library_management.exception.ResourceNotFoundException;
 import com.exam.library_management.repository.BookRepository;
 import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.MonthlyActivityRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +31,9 @@ public class BorrowService {
     private final BorrowRecordRepository borrowRecordRepository;
     private final BookRepository bookRepository;
     private final LibraryProperties libraryProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HoldService holdService;
+    private final MonthlyActivityRepository monthlyActivityRepository;
 
     private static final Logger logger = LoggerFactory.getLogger(BorrowService.class);
 
@@ -36,11 +43,20 @@ public class BorrowService {
     @Transactional
     public BorrowRecord borrowBook(User user, Long bookId) {
 
-        // Rule 1: Only one active borrow per user
-        if (borrowRecordRepository.existsByUserAndReturnDateIsNull(user)) {
-            throw new BadRequestException(
-                    "You already have a borrowed book. Please return it first."
-            );
+        // Rule 1: Book must be available, or reserved for this user by a READY hold. Claimed
+        // with one guarded UPDATE, so of any number of concurrent borrowers exactly one wins.
+        BookStatus previousStatus = BookStatus.AVAILABLE;
+        if (bookRepository.compareAndSetStatus(bookId, BookStatus.AVAILABLE, BookStatus.BORROWED) == 0) {
+            if (holdService.fulfillReadyHold(user, bookId)
+                    && bookRepository.compareAndSetStatus(bookId, BookStatus.RESERVED, BookStatus.BORROWED) == 1) {
+                previousStatus = BookStatus.RESERVED;
+            } else if (!bookRepository.existsById(bookId)) {
+                throw new ResourceNotFoundException("Book not found");
+            } else {
+                throw new BadRequestException(
+                        "This book is currently not available for borrowing"
+                );
+            }
         }
 
         Book book = bookRepository.findById(bookId)
@@ -48,16 +64,9 @@ public class BorrowService {
                         new ResourceNotFoundException(
                                 "Book not found"
                         ));
-
-        // Rule 2: Book must be available
-        if (book.getStatus() != BookStatus.AVAILABLE) {
-            throw new BadRequestException(
-                    "This book is currently not available for borrowing"
-            );
-        }
-
-        // Update book
+        // Loaded after the guarded UPDATE, so it already carries the bumped version.
         book.setStatus(BookStatus.BORROWED);
+        eventPublisher.publishEvent(BookChangedEvent.updated(book, previousStatus));
 
         // Create borrow record
         BorrowRecord record = new BorrowRecord();
@@ -66,7 +75,23 @@ public class BorrowService {
         record.setBorrowDate(LocalDate.now());
         record.setDueDate(LocalDate.now().plusDays(libraryProperties.getBorrowDurationDays()));
 
-        return borrowRecordRepository.save(record);
+        // Rule 2: Only one active borrow per user, enforced by the unique active-loan key.
+        // Failing here rolls the whole transaction back, releasing the book claimed above.
+        BorrowRecord savedRecord;
+        try {
+            savedRecord = borrowRecordRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException ex) {
+            if (!isActiveLoanViolation(ex)) {
+                throw ex;
+            }
+            throw new BadRequestException(
+                    "You already have a borrowed book. Please return it first."
+            );
+        }
+
+        // Counted last, once the loan is certain, so a rejected borrow never touches the rollup.
+        monthlyActivityRepository.recordBorrow(record.getBorrowDate().withDayOfMonth(1), user.getId(), bookId);
+        return savedRecord;
     }
 
     /* =========================
@@ -77,6 +102,16 @@ public class BorrowService {
 
         logger.info("BorrowService.returnBook called for userId={}", user.getId());
 
+        // Lock the book row before reading the loan: it serializes this return with a desk batch
+        // returning the same loan and with hold placement, so the handoff below sees every waiter.
+        Long bookId = borrowRecordRepository.findActiveBookId(user.getId())
+                .orElseThrow(() ->
+                        new BadRequestException(
+                                "You do not have any borrowed book to return"
+                        ));
+        Book book = bookRepository.lockById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
+
         BorrowRecord record = borrowRecordRepository
                 .findByUserAndReturnDateIsNull(user)
                 .orElseThrow(() ->
@@ -85,7 +120,6 @@ public class BorrowService {
                         ));
 
         LocalDate returnDate = LocalDate.now();
-        record.setReturnDate(returnDate);
 
         BigDecimal lateFee = BigDecimal.ZERO;
         // Late fee calculation
@@ -94,15 +128,31 @@ public class BorrowService {
             lateFee = BigDecimal.valueOf(daysLate)
                     .multiply(BigDecimal.valueOf(libraryProperties.getLateFeePerDay()));
         }
+
+        // The loan read above may predate a return that committed while we waited for the lock;
+        // only the guarded UPDATE knows, and exactly one closer gets 1 back.
+        if (borrowRecordRepository.closeLoan(record.getId(), returnDate, lateFee) == 0) {
+            throw new BadRequestException("You do not have any borrowed book to return");
+        }
+        // Keep the managed instance in step; its flush rewrites the same values under our row lock.
+        record.setReturnDate(returnDate);
         record.setLateFee(lateFee);
 
-        // Update book
-        Book book = record.getBook();
-        book.setStatus(BookStatus.AVAILABLE);
+        // The first waiter, if any, gets the book RESERVED.
+        BookStatus previousStatus = book.getStatus();
+        book.setStatus(holdService.handOff(book) ? BookStatus.RESERVED : BookStatus.AVAILABLE);
+        book.setVersion(book.getVersion() + 1);
+        eventPublisher.publishEvent(BookChangedEvent.updated(book, previousStatus));
 
         BorrowRecord savedRecord = borrowRecordRepository.save(record);
+        monthlyActivityRepository.recordReturn(returnDate.withDayOfMonth(1), user.getId(), book.getId(), lateFee);
         logger.info("Return record saved: recordId={}, lateFee={}", savedRecord.getId(), savedRecord.getLateFee());
 
         return savedRecord;
     }
+
+    private static boolean isActiveLoanViolation(DataIntegrityViolationException ex) {
+        String detail = ex.getMostSpecificCause().getMessage();
+        return detail != null && detail.contains(BorrowRecord.ACTIVE_LOAN_KEY);
+    }
 }
@@ -0,0 +1,110 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookChange;
+import com.exam.library_management.dto.BookChangesResponse;
+import com.exam.library_management.event.BookChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only log of committed book changes, so catalog mirrors can sync by delta.
+ * Entries are numbered as their after-commit listeners run, so a client that has seen
+ * version N never misses a change numbered below N. Listeners of different commits run
+ * in no particular order, so that numbering is not commit order: a book's entries are
+ * instead kept in the order of the row version carried by each event, and an event older
+ * than one already logged for its book is dropped.
+ *
+ * Compaction keeps only the newest entry per book (a mirror needs the latest state,
+ * not the history) and drops the oldest entries beyond the configured capacity.
+ * Clients behind the compaction horizon are told to resync.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeLog {
+
+    private final LibraryProperties libraryProperties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<Long, BookChange> entries = new TreeMap<>();
+    private final Map<Long, Long> versionByBook = new HashMap<>();
+
+    // Highest row version logged per book; outlives compaction so a late older event stays out.
+    private final Map<Long, Long> bookVersions = new HashMap<>();
+
+    // Seeded from the clock so versions handed out before a restart fall below the new horizon.
+    private final long seed = Math.multiplyExact(System.currentTimeMillis(), 1_000L);
+
+    private long version = seed;
+
+    // Changes at or below this version may have been dropped by capacity compaction.
+    private long horizon = seed;
+
+    @Order(CatalogVersion.VIEW_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            long bookId = event.getBook().getId();
+            Long logged = bookVersions.get(bookId);
+            if (logged != null && event.getVersion() <= logged) {
+                // Committed before a change already logged for this book; its listener just ran later.
+                return;
+            }
+            bookVersions.put(bookId, event.getVersion());
+
+            BookChange change = new BookChange(++version, event.getVersion(),
+                    event.getType(), event.getPreviousStatus(), event.getBook());
+
+            Long superseded = versionByBook.put(bookId, change.getVersion());
+            if (superseded != null) {
+                entries.remove(superseded);
+            }
+            entries.put(change.getVersion(), change);
+
+            int capacity = Math.max(1, libraryProperties.getCatalog().getChangeLogCapacity());
+            while (entries.size() > capacity) {
+                BookChange dropped = entries.pollFirstEntry().getValue();
+                versionByBook.remove(dropped.getBook().getId(), dropped.getVersion());
+                horizon = dropped.getVersion();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* Changes with a version above {@code since}, oldest first, at most {@code limit}. */
+    public BookChangesResponse changesSince(long since, int limit) {
+        lock.readLock().lock();
+        try {
+            if (since < horizon || since > version) {
+                // Unknown position (compacted away, or issued before a restart): full reload needed.
+                return new BookChangesResponse(since, version, true, false, List.of());
+            }
+
+            List<BookChange> changes = new ArrayList<>(Math.min(limit, entries.size()));
+            for (BookChange change : entries.tailMap(since, false).values()) {
+                if (changes.size() == limit) {
+                    break;
+                }
+                changes.add(change);
+            }
+            boolean hasMore = changes.size() == limit
+                    && changes.get(changes.size() - 1).getVersion() < version;
+            long next = hasMore ? changes.get(changes.size() - 1).getVersion() : version;
+            return new BookChangesResponse(since, next, false, hasMore, changes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.CursorPage;
+import com.exam.library_management.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Encodes the keyset position (last seen id) of a catalog listing as an opaque
+ * continuation token, so clients never build cursors themselves.
+ */
+public final class CatalogCursor {
+
+    private static final String PREFIX = "id:";
+
+    private CatalogCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* Returns the id to seek after; a missing cursor starts from the beginning. */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            long lastId = Long.parseLong(raw.substring(PREFIX.length()));
+            if (lastId < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return lastId;
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /*
+     * Builds a page from rows fetched with limit + 1: the extra row only signals
+     * that another page exists and is never returned.
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int limit, ToLongFunction<T> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, encode(idOf.applyAsLong(items.get(limit - 1))));
+    }
+}
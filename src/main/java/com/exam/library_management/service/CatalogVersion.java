@@ -0,0 +1,43 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.event.BookChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the book catalog, bumped after every committed book change
+ * (admin writes, imports, borrow/return). Listing endpoints expose it as an ETag so
+ * unchanged polls can be answered with 304 before any data is read.
+ */
+@Component
+public class CatalogVersion {
+
+    // Catalog views (order 0) apply a change before the version moves, so a tag never labels stale data.
+    public static final int VIEW_ORDER = 0;
+
+    // The counter restarts with the process; the start time keeps tags from colliding across restarts.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Bumped for every event, even one the views drop as older than what they hold: the
+    // counter only has to move after each commit, so delivery order does not matter here.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    /* Strong ETag. Read it before loading the data it labels. */
+    public String etag() {
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,80 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.event.HoldQueueChangedEvent;
+import com.exam.library_management.repository.HoldRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-local FIFO of the users waiting for each book, loaded from the holds index
+ * on first use and dropped whenever a committed change touches that book's waitlist.
+ * Waitlist positions are answered from here, so polling clients rarely hit MySQL.
+ */
+@Component
+public class HoldQueueCache {
+
+    static final String CACHE_NAME = "holds.queues";
+
+    private final HoldRepository holdRepository;
+    private final Cache<Long, List<Long>> waitingByBook;
+
+    // Bumped by every eviction, so a load that overlaps one can tell it may have read the old list.
+    private final AtomicLong evictions = new AtomicLong();
+
+    public HoldQueueCache(HoldRepository holdRepository,
+                          LibraryProperties libraryProperties,
+                          MeterRegistry meterRegistry) {
+        this.holdRepository = holdRepository;
+        LibraryProperties.Holds settings = libraryProperties.getHolds();
+        this.waitingByBook = Caffeine.newBuilder()
+                .maximumSize(settings.getQueueCacheSize())
+                .expireAfterWrite(settings.getQueueCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, waitingByBook, CACHE_NAME);
+    }
+
+    /*
+     * User ids waiting for the book, oldest hold first. A miss reads in the caller's transaction,
+     * outside any cache lock. The result is only kept if no eviction ran meanwhile: a REPEATABLE
+     * READ snapshot may predate that change. A snapshot opened just before an eviction can still
+     * get through, which the TTL bounds. Books nobody waits for are not cached at all.
+     */
+    public List<Long> waitingUsers(long bookId) {
+        List<Long> cached = waitingByBook.getIfPresent(bookId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = evictions.get();
+        List<Long> loaded = List.copyOf(holdRepository.findUserIdsByBookAndStatus(bookId, HoldStatus.WAITING));
+        if (!loaded.isEmpty()) {
+            waitingByBook.put(bookId, loaded);
+            // Checked after the put, so a racing eviction either removes this entry or is seen here.
+            if (evictions.get() != seen) {
+                waitingByBook.invalidate(bookId);
+            }
+        }
+        return loaded;
+    }
+
+    /* 1-based position of the user in the book's waitlist, or 0 when not waiting. */
+    public int position(long bookId, long userId) {
+        return waitingUsers(bookId).indexOf(userId) + 1;
+    }
+
+    // Runs after the change commits; any load already in flight sees the counter move and drops what it read.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldQueueChanged(HoldQueueChangedEvent event) {
+        evictions.incrementAndGet();
+        waitingByBook.invalidate(event.getBookId());
+    }
+}
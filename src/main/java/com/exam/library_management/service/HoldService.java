@@ -0,0 +1,183 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.HoldResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.Hold;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.event.HoldQueueChangedEvent;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.ResourceNotFoundException;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.HoldRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Waitlist for borrowed books. Returning a book hands it to the oldest WAITING hold
+ * in the same transaction: the book becomes RESERVED and only that user can borrow
+ * it until the pickup window closes, after which it moves on down the queue.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldService {
+
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    private final HoldRepository holdRepository;
+    private final BookRepository bookRepository;
+    private final HoldQueueCache holdQueueCache;
+    private final LibraryProperties libraryProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /* USER */
+    @Transactional
+    public HoldResponse placeHold(User user, Long bookId) {
+        // Same row lock as the return handoff: a hold either commits before the handoff
+        // looks for waiters, or sees the book already AVAILABLE.
+        Book book = bookRepository.lockById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
+        if (book.getStatus() == BookStatus.AVAILABLE) {
+            throw new BadRequestException("This book is available. Borrow it instead of placing a hold");
+        }
+
+        Hold hold = new Hold();
+        hold.setUser(user);
+        hold.setBook(book);
+        hold.setStatus(HoldStatus.WAITING);
+        hold.setCreatedAt(LocalDateTime.now());
+        try {
+            hold = holdRepository.saveAndFlush(hold);
+        } catch (DataIntegrityViolationException ex) {
+            String detail = ex.getMostSpecificCause().getMessage();
+            if (detail == null || !detail.contains(Hold.LIVE_HOLD_KEY)) {
+                throw ex;
+            }
+            throw new BadRequestException("You already have a hold on this book");
+        }
+        eventPublisher.publishEvent(new HoldQueueChangedEvent(bookId));
+
+        HoldResponse response = toResponse(hold);
+        // Not committed yet, so the cached waitlist cannot know about it.
+        response.setPosition(Math.toIntExact(
+                holdRepository.countByBookIdAndStatusAndIdLessThan(bookId, HoldStatus.WAITING, hold.getId()) + 1));
+        return response;
+    }
+
+    /* USER */
+    @Transactional(readOnly = true)
+    public List<HoldResponse> getHolds(User user) {
+        List<HoldResponse> holds = holdRepository.findResponsesByUser(
+                user.getId(), EnumSet.of(HoldStatus.WAITING, HoldStatus.READY));
+        for (HoldResponse hold : holds) {
+            if (hold.getStatus() == HoldStatus.WAITING) {
+                hold.setPosition(holdQueueCache.position(hold.getBookId(), user.getId()));
+            }
+        }
+        return holds;
+    }
+
+    /* USER */
+    @Transactional
+    public void cancelHold(User user, Long holdId) {
+        Hold hold = holdRepository.findByIdAndUserId(holdId, user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found"));
+        // Lock the book before touching the hold so a concurrent handoff cannot slip in between.
+        Book book = bookRepository.lockById(hold.getBook().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
+
+        if (holdRepository.compareAndSetStatus(holdId, HoldStatus.WAITING, HoldStatus.CANCELLED) == 1) {
+            eventPublisher.publishEvent(new HoldQueueChangedEvent(book.getId()));
+        } else if (holdRepository.compareAndSetStatus(holdId, HoldStatus.READY, HoldStatus.CANCELLED) == 1) {
+            passOn(book);
+        } else {
+            throw new BadRequestException("This hold is no longer active");
+        }
+    }
+
+    /*
+     * Called by BorrowService.returnBook with the book row already locked. Marks the oldest
+     * WAITING hold READY and returns true; the caller then sets the book RESERVED.
+     */
+    public boolean handOff(Book book) {
+        return holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(book.getId(), HoldStatus.WAITING)
+                .map(next -> {
+                    next.setStatus(HoldStatus.READY);
+                    next.setReadyUntil(LocalDateTime.now().plus(libraryProperties.getHolds().getPickupWindow()));
+                    eventPublisher.publishEvent(new HoldQueueChangedEvent(book.getId()));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /* Claims the user's READY hold on a RESERVED book; runs inside the borrow transaction. */
+    public boolean fulfillReadyHold(User user, Long bookId) {
+        return holdRepository.fulfillReady(user.getId(), bookId, LocalDateTime.now()) == 1;
+    }
+
+    // Pickup windows that lapsed pass the book to the next waiter, or back to AVAILABLE.
+    @Scheduled(fixedDelayString = "${library.holds.expiry-check-interval:PT1M}")
+    @Transactional
+    public void expireReadyHolds() {
+        // The oldest lapsed holds, then locked in book id order like BorrowBatchService's chunks,
+        // so the sweep and a desk batch can never each hold a book the other is waiting for.
+        List<Hold> expired = holdRepository.findExpiredReady(
+                        LocalDateTime.now(), PageRequest.of(0, EXPIRY_BATCH_SIZE))
+                .stream()
+                .sorted(Comparator.comparing((Hold hold) -> hold.getBook().getId()))
+                .toList();
+        int closed = 0;
+        for (Hold hold : expired) {
+            Book book = bookRepository.lockById(hold.getBook().getId()).orElseThrow();
+            // Re-checked under the book lock: the holder may have borrowed or cancelled meanwhile.
+            if (holdRepository.compareAndSetStatus(hold.getId(), HoldStatus.READY, HoldStatus.EXPIRED) == 1) {
+                passOn(book);
+                closed++;
+            }
+        }
+        if (closed > 0) {
+            log.info("Expired {} uncollected holds", closed);
+        }
+    }
+
+    /* Passes a RESERVED book whose READY hold just closed on; the book row must be locked. */
+    private void passOn(Book book) {
+        if (handOff(book)) {
+            return;
+        }
+        // Nobody else is waiting: the reserved copy goes back on the shelf.
+        if (bookRepository.compareAndSetStatus(book.getId(), BookStatus.RESERVED, BookStatus.AVAILABLE) == 1) {
+            // Keep the locked instance in step with the bulk UPDATE, version bump included.
+            book.setStatus(BookStatus.AVAILABLE);
+            book.setVersion(book.getVersion() + 1);
+            eventPublisher.publishEvent(BookChangedEvent.updated(book, BookStatus.RESERVED));
+        }
+    }
+
+    private static HoldResponse toResponse(Hold hold) {
+        return new HoldResponse(
+                hold.getId(),
+                hold.getBook().getId(),
+                hold.getBook().getBookCode(),
+                hold.getBook().getTitle(),
+                hold.getStatus(),
+                hold.getCreatedAt(),
+                hold.getReadyUntil()
+        );
+    }
+}
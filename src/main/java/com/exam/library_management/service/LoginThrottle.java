@@ -0,0 +1,172 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window limit on login attempts per username and per client address, checked
+ * before any password is hashed. Each key keeps the counts of the current and previous
+ * fixed window and weighs the previous one by how much of it still overlaps the sliding
+ * window, updated with a CAS loop. Keys live in a size-bounded cache, so a flood of
+ * random usernames costs bounded memory.
+ */
+@Component
+public class LoginThrottle {
+
+    static final String THROTTLED_MESSAGE = "Too many login attempts. Please try again later.";
+
+    private final LibraryProperties.LoginThrottle settings;
+    private final LongSupplier clock;
+    private final long windowNanos;
+    private final Cache<String, Window> windows;
+    private final Counter usernameRejections;
+    private final Counter addressRejections;
+
+    @Autowired
+    public LoginThrottle(LibraryProperties libraryProperties, MeterRegistry meterRegistry) {
+        this(libraryProperties, meterRegistry, System::nanoTime);
+    }
+
+    LoginThrottle(LibraryProperties libraryProperties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.settings = libraryProperties.getLoginThrottle();
+        this.clock = clock;
+        this.windowNanos = settings.getWindow().toNanos();
+        // An idle key has nothing left to weigh after two windows.
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxTrackedKeys())
+                .expireAfterAccess(2 * windowNanos, TimeUnit.NANOSECONDS)
+                .build();
+        this.usernameRejections = rejections(meterRegistry, "username");
+        this.addressRejections = rejections(meterRegistry, "address");
+        Gauge.builder("library.login.throttle.keys", windows, Cache::estimatedSize)
+                .description("Usernames and client addresses currently tracked by the login throttle")
+                .register(meterRegistry);
+    }
+
+    /*
+     * Refuses the attempt if the client address is already at its limit, without counting it.
+     * Cheap and query-free, so AuthService calls it before resolving the login name.
+     */
+    public void checkAddress(String clientAddress) {
+        if (!settings.isEnabled() || clientAddress == null) {
+            return;
+        }
+        Window window = windows.getIfPresent(addressKey(clientAddress));
+        if (window != null && !window.admits(clock.getAsLong(), settings.getMaxAttemptsPerAddress())) {
+            addressRejections.increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE, settings.getWindow());
+        }
+    }
+
+    /*
+     * Counts one attempt against both keys, or throws TooManyRequestsException. The address is
+     * checked first and counted last, so an attempt refused for its username (a locked account)
+     * does not use up the address's allowance. AuthService passes the account's email when the
+     * login name resolves, so aliases share a key.
+     */
+    public void acquire(String username, String clientAddress) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        checkAddress(clientAddress);
+        long now = clock.getAsLong();
+        if (username != null
+                && !window(usernameKey(username)).tryAcquire(now, settings.getMaxAttemptsPerUsername())) {
+            usernameRejections.increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE, settings.getWindow());
+        }
+        // Only refuses here if concurrent attempts took the address's last slots since the check.
+        if (clientAddress != null
+                && !window(addressKey(clientAddress)).tryAcquire(now, settings.getMaxAttemptsPerAddress())) {
+            addressRejections.increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE, settings.getWindow());
+        }
+    }
+
+    /* A successful login clears the username's failures; the address keeps its count. */
+    public void reset(String username) {
+        if (username != null) {
+            windows.invalidate(usernameKey(username));
+        }
+    }
+
+    private Window window(String key) {
+        return windows.get(key, k -> new Window(windowNanos));
+    }
+
+    private static String usernameKey(String username) {
+        return "user:" + username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String addressKey(String clientAddress) {
+        return "addr:" + clientAddress;
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("library.login.throttled")
+                .description("Login attempts refused before checking the password")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static final class Window {
+
+        private final long length;
+        private final AtomicReference<Counts> counts;
+
+        Window(long length) {
+            this.length = length;
+            this.counts = new AtomicReference<>(new Counts(Long.MIN_VALUE, 0, 0));
+        }
+
+        boolean admits(long now, int limit) {
+            return counts.get().rollTo(now, length).weighted(now, length) < limit;
+        }
+
+        boolean tryAcquire(long now, int limit) {
+            while (true) {
+                Counts seen = counts.get();
+                Counts rolled = seen.rollTo(now, length);
+                if (rolled.weighted(now, length) >= limit) {
+                    return false;
+                }
+                if (counts.compareAndSet(seen, new Counts(rolled.start, rolled.previous, rolled.current + 1))) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private record Counts(long start, int previous, int current) {
+
+        // Attempts in the sliding window: the previous window weighed by how much still overlaps.
+        double weighted(long now, long length) {
+            double overlap = 1.0 - (double) (now - start) / length;
+            return previous * overlap + current;
+        }
+
+        // Moves to the fixed window containing now; whatever ended over a window ago counts as nothing.
+        Counts rollTo(long now, long length) {
+            if (start != Long.MIN_VALUE && now - start < length) {
+                return this;
+            }
+            if (start != Long.MIN_VALUE && now - start < 2 * length) {
+                return new Counts(start + length, current, 0);
+            }
+            return new Counts(now, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.ActivityTotals;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.MonthlyActivityRepository;
+import com.exam.library_management.repository.MonthlyReportSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Reads over the monthly_activity rollup, which BorrowService and BorrowBatchService keep
+ * current as loans open and close. A month that predates the rollup (or was edited by
+ * hand) is recomputed from borrow_records with {@link #rebuild}, which also drops any
+ * report snapshot stored for it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonthlyActivityService {
+
+    private static final String DELETE_MONTH_SQL =
+            "DELETE FROM monthly_activity WHERE activity_month = :month";
+
+    private static final String REBUILD_MONTH_SQL = """
+            INSERT INTO monthly_activity (activity_month, user_id, book_id, borrowed_count, returned_count, late_fees)
+            SELECT :month, user_id, book_id, SUM(borrowed), SUM(returned), SUM(fees)
+            FROM (
+                SELECT user_id, book_id, 1 AS borrowed, 0 AS returned, 0 AS fees
+                FROM borrow_records WHERE borrow_date BETWEEN :start AND :end
+                UNION ALL
+                SELECT user_id, book_id, 0, 1, COALESCE(late_fee, 0)
+                FROM borrow_records WHERE return_date BETWEEN :start AND :end
+            ) activity
+            GROUP BY user_id, book_id
+            """;
+
+    private final MonthlyActivityRepository monthlyActivityRepository;
+    private final MonthlyReportSnapshotRepository snapshotRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public List<UserActivitySummary> userActivity(YearMonth from, YearMonth to) {
+        return monthlyActivityRepository.summarizeUsers(from.atDay(1), to.atDay(1));
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityTotals totals(YearMonth from, YearMonth to) {
+        return monthlyActivityRepository.totals(from.atDay(1), to.atDay(1));
+    }
+
+    /* ADMIN */
+    // Replaces the month's rollup rows in one transaction; returns the rows written.
+    // A stored report for the month was built from the old rows, so it is dropped with them.
+    @Transactional
+    public int rebuild(YearMonth month) {
+        // A future month has no loans yet; rebuilding it would only wipe rows nothing can refill.
+        if (month.isAfter(YearMonth.now())) {
+            throw new BadRequestException("Monthly activity cannot be rebuilt for future months");
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("month", month.atDay(1))
+                .addValue("start", month.atDay(1))
+                .addValue("end", month.atEndOfMonth());
+        jdbcTemplate.update(DELETE_MONTH_SQL, parameters);
+        int rows = jdbcTemplate.update(REBUILD_MONTH_SQL, parameters);
+        snapshotRepository.deleteByReportMonth(month.atDay(1));
+        log.info("Rebuilt monthly activity for {}: {} rows", month, rows);
+        return rows;
+    }
+}
@@ -1,32 +1,38 @@
 package com.exam.library_management.service;
 
+import com.exam.library_management.dto.BorrowRecordResponse;
 import com.exam.library_management.dto.MonthlyReport;
-import com.exam.library_management.dto.UserActivitySummary;
-import com.exam.library_management.entity.BorrowRecord;
 import com.exam.library_management.repository.BorrowRecordRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.List;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @Profile("!test")
 public class MonthlyReportService {
 
+    private final ReportService reportService;
     private final BorrowRecordRepository borrowRepo;
+    private final TransactionTemplate transactionTemplate;
     private final String reportCron;
 
     public MonthlyReportService(
+            ReportService reportService,
             BorrowRecordRepository borrowRepo,
+            TransactionTemplate transactionTemplate,
             @Value("${library.report.cron:0 59 23 L * ?}") String reportCron
     ) {
+        this.reportService = reportService;
         this.borrowRepo = borrowRepo;
+        this.transactionTemplate = transactionTemplate;
         this.reportCron = reportCron;
     }
 
@@ -50,54 +56,19 @@ public class MonthlyReportService {
         // System.out.println("Returned: " + returned.size());
         // System.out.println("Overdue: " + overdue.size());
         YearMonth previousMonth = YearMonth.now().minusMonths(1);
-        LocalDate start = previousMonth.atDay(1);
-        LocalDate end = previousMonth.atEndOfMonth();
-
-        MonthlyReport report = buildMonthlyReport(start, end, previousMonth);
 
         log.info("Running monthly report scheduler with cron: {}", reportCron);
+        // The same stored report the admin endpoint serves, so the log and the API never disagree.
+        MonthlyReport report = reportService.getReport(previousMonth);
         logReport(report);
-    }
-
-    private MonthlyReport buildMonthlyReport(
-            LocalDate start,
-            LocalDate end,
-            YearMonth month
-    ) {
-        List<BorrowRecord> borrowed =
-                borrowRepo.findByBorrowDateBetween(start, end);
-
-        List<BorrowRecord> returned =
-                borrowRepo.findByReturnDateBetween(start, end);
-
-        List<BorrowRecord> overdue =
-                borrowRepo.findOverdueBooks(end);
-
-        List<UserActivitySummary> userActivity =
-                borrowRepo.getUserActivitySummary(start, end);
-
-        return new MonthlyReport(
-                month,
-                borrowed,
-                returned,
-                overdue,
-                userActivity
-        );
+        logOverdueBooks(previousMonth.atEndOfMonth());
     }
 
     private void logReport(MonthlyReport report) {
         log.info("📊 Monthly Report for {}", report.getMonth());
-        log.info("📚 Books Borrowed: {}", report.getBooksBorrowed().size());
-        log.info("📦 Books Returned: {}", report.getBooksReturned().size());
-        log.info("⏰ Overdue Books: {}", report.getOverdueBooks().size());
-
-        report.getOverdueBooks().forEach(br ->
-                log.info("Overdue → Book={}, User={}, LateFee={}",
-                        br.getBook().getTitle(),
-                        br.getUser().getEmail(),
-                        br.getLateFee()
-                )
-        );
+        log.info("📚 Books Borrowed: {}", report.getBooksBorrowed());
+        log.info("📦 Books Returned: {}", report.getBooksReturned());
+        log.info("⏰ Overdue Books: {}", report.getOverdueBooks());
 
         report.getUserActivity().forEach(ua ->
                 log.info("User={} | Borrowed={} | Returned={}",
@@ -107,4 +78,19 @@ public class MonthlyReportService {
                 )
         );
     }
+
+    // Streamed from a server-side cursor one row at a time; nothing is collected.
+    private void logOverdueBooks(LocalDate date) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BorrowRecordResponse> overdue = borrowRepo.streamOverdue(date)) {
+                overdue.forEach(br ->
+                        log.info("Overdue → Book={}, User={}, LateFee={}",
+                                br.getBookTitle(),
+                                br.getUserEmail(),
+                                br.getLateFee()
+                        )
+                );
+            }
+        });
+    }
 }
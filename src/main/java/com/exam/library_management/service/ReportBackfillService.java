@@ -0,0 +1,148 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.ReportBackfillStatus;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds stored monthly reports for a range of closed months, several months at a time.
+ * Each month runs on one pool thread and goes through {@link ReportService}, so it reads
+ * in its own read-only transaction on its own connection; the pool size is therefore the
+ * most connections a backfill takes from the application. One backfill runs at a time and
+ * its progress is polled with {@link #status()}.
+ */
+@Slf4j
+@Service
+public class ReportBackfillService implements DisposableBean {
+
+    private final ReportService reportService;
+    private final MonthlyActivityService monthlyActivityService;
+    private final LibraryProperties.ReportBackfill settings;
+    private final ThreadPoolExecutor builders;
+
+    private Job current;
+
+    public ReportBackfillService(
+            ReportService reportService,
+            MonthlyActivityService monthlyActivityService,
+            LibraryProperties libraryProperties
+    ) {
+        this.reportService = reportService;
+        this.monthlyActivityService = monthlyActivityService;
+        this.settings = libraryProperties.getReportBackfill();
+        int threads = Math.max(1, settings.getWorkers());
+        this.builders = new ThreadPoolExecutor(threads, threads, 1L, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("report-backfill-"));
+        // Idle between backfills, so the threads are let go.
+        this.builders.allowCoreThreadTimeOut(true);
+    }
+
+    /* ADMIN */
+    // With rebuildActivity, each month's rollup is recomputed from borrow_records first (e.g. after an import).
+    public synchronized ReportBackfillStatus start(YearMonth from, YearMonth to, boolean rebuildActivity) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (!to.isBefore(YearMonth.now())) {
+            throw new BadRequestException("Only months that have ended can be backfilled");
+        }
+        int months = Math.toIntExact(ChronoUnit.MONTHS.between(from, to) + 1);
+        if (months > settings.getMaxMonths()) {
+            throw new BadRequestException("A backfill may cover at most " + settings.getMaxMonths() + " months");
+        }
+        if (current != null && !current.isFinished()) {
+            throw new BadRequestException("A report backfill is already running");
+        }
+
+        Job job = new Job(from, to, rebuildActivity, months);
+        current = job;
+        log.info("Report backfill {} started: {} to {} ({} months)", job.id, from, to, months);
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            YearMonth target = month;
+            builders.execute(() -> build(job, target));
+        }
+        return job.toStatus();
+    }
+
+    /* ADMIN */
+    public synchronized ReportBackfillStatus status() {
+        if (current == null) {
+            throw new ResourceNotFoundException("No report backfill has been started");
+        }
+        return current.toStatus();
+    }
+
+    @Override
+    public void destroy() {
+        builders.shutdownNow();
+    }
+
+    private void build(Job job, YearMonth month) {
+        try {
+            if (job.rebuildActivity) {
+                monthlyActivityService.rebuild(month);
+            }
+            reportService.getReport(month);
+            job.completed.incrementAndGet();
+        } catch (RuntimeException ex) {
+            log.warn("Report backfill {} could not build {}", job.id, month, ex);
+            job.failures.add(month + ": " + ex.getMessage());
+        }
+
+        int done = job.done.incrementAndGet();
+        if (done == job.total) {
+            job.finishedAt = LocalDateTime.now();
+            log.info("Report backfill {} finished: {} built, {} failed",
+                    job.id, job.completed.get(), job.failures.size());
+        } else if (done % 12 == 0) {
+            log.info("Report backfill {}: {}/{} months done", job.id, done, job.total);
+        }
+    }
+
+    private static final class Job {
+
+        private final String id = UUID.randomUUID().toString();
+        private final YearMonth from;
+        private final YearMonth to;
+        private final boolean rebuildActivity;
+        private final int total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger done = new AtomicInteger();
+        private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        private volatile LocalDateTime finishedAt;
+
+        private Job(YearMonth from, YearMonth to, boolean rebuildActivity, int total) {
+            this.from = from;
+            this.to = to;
+            this.rebuildActivity = rebuildActivity;
+            this.total = total;
+        }
+
+        private boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private ReportBackfillStatus toStatus() {
+            return new ReportBackfillStatus(id, from, to, rebuildActivity, total, completed.get(),
+                    new ArrayList<>(failures), startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.ActivityTotals;
+import com.exam.library_management.dto.MonthlyReport;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.entity.MonthlyReportSnapshot;
+import com.exam.library_management.entity.ReportedUserActivity;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.MonthlyReportSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Monthly reports on demand. A month that has ended is computed once and stored as a
+ * {@link MonthlyReportSnapshot}; every later request reads that row. Only the current
+ * month, which is still changing, is computed on each request.
+ */
+@Slf4j
+@Service
+public class ReportService {
+
+    private final BorrowRecordRepository borrowRecordRepository;
+    private final MonthlyActivityService monthlyActivityService;
+    private final MonthlyReportSnapshotRepository snapshotRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReportService(
+            BorrowRecordRepository borrowRecordRepository,
+            MonthlyActivityService monthlyActivityService,
+            MonthlyReportSnapshotRepository snapshotRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.borrowRecordRepository = borrowRecordRepository;
+        this.monthlyActivityService = monthlyActivityService;
+        this.snapshotRepository = snapshotRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /* ADMIN */
+    public MonthlyReport getReport(YearMonth month) {
+        YearMonth current = YearMonth.now();
+        if (month.isAfter(current)) {
+            throw new BadRequestException("Reports are not available for future months");
+        }
+        if (month.equals(current)) {
+            return compute(month, LocalDate.now());
+        }
+        return snapshotRepository.findByReportMonth(month.atDay(1))
+                .map(ReportService::toReport)
+                .orElseGet(() -> snapshot(month));
+    }
+
+    private MonthlyReport snapshot(YearMonth month) {
+        MonthlyReport report = compute(month, month.atEndOfMonth());
+        try {
+            snapshotRepository.saveAndFlush(toSnapshot(report));
+            log.info("Stored monthly report snapshot for {}", month);
+        } catch (DataIntegrityViolationException ex) {
+            String detail = ex.getMostSpecificCause().getMessage();
+            if (detail == null || !detail.contains(MonthlyReportSnapshot.REPORT_MONTH_KEY)) {
+                throw ex;
+            }
+            // Another request stored it first; serve that one so every caller sees the same snapshot.
+            return snapshotRepository.findByReportMonth(month.atDay(1))
+                    .map(ReportService::toReport)
+                    .orElse(report);
+        }
+        return report;
+    }
+
+    /*
+     * One read-only transaction, so the totals and the user lines come from the same point in time
+     * and from the same place: the monthly_activity rollup. A month with loans but no rollup rows
+     * predates the rollup (or was imported without a rebuild); it is read from borrow_records
+     * instead, totals and user lines alike, so a stored report never mixes the two.
+     */
+    private MonthlyReport compute(YearMonth month, LocalDate asOf) {
+        LocalDate start = month.atDay(1);
+        return readOnlyTransaction.execute(status -> {
+            long overdue = borrowRecordRepository.countOverdueAsOf(asOf);
+            ActivityTotals totals = monthlyActivityService.totals(month, month);
+            if (coveredByRollup(totals, start, asOf)) {
+                return new MonthlyReport(
+                        month,
+                        totals.getBorrowedCount(),
+                        totals.getReturnedCount(),
+                        overdue,
+                        monthlyActivityService.userActivity(month, month),
+                        LocalDateTime.now()
+                );
+            }
+            return new MonthlyReport(
+                    month,
+                    borrowRecordRepository.countByBorrowDateBetween(start, asOf),
+                    borrowRecordRepository.countByReturnDateBetween(start, asOf),
+                    overdue,
+                    borrowRecordRepository.getUserActivitySummary(start, asOf),
+                    LocalDateTime.now()
+            );
+        });
+    }
+
+    // Empty rollup totals only mean a quiet month when borrow_records agrees.
+    private boolean coveredByRollup(ActivityTotals totals, LocalDate start, LocalDate end) {
+        return totals.getBorrowedCount() > 0
+                || totals.getReturnedCount() > 0
+                || !(borrowRecordRepository.existsByBorrowDateBetween(start, end)
+                        || borrowRecordRepository.existsByReturnDateBetween(start, end));
+    }
+
+    private static MonthlyReportSnapshot toSnapshot(MonthlyReport report) {
+        MonthlyReportSnapshot snapshot = new MonthlyReportSnapshot();
+        snapshot.setReportMonth(report.getMonth().atDay(1));
+        snapshot.setBorrowedCount(report.getBooksBorrowed());
+        snapshot.setReturnedCount(report.getBooksReturned());
+        snapshot.setOverdueCount(report.getOverdueBooks());
+        snapshot.setGeneratedAt(report.getGeneratedAt());
+        for (UserActivitySummary user : report.getUserActivity()) {
+            snapshot.getUserActivity().add(new ReportedUserActivity(
+                    user.getUserId(),
+                    user.getEmail(),
+                    user.getBorrowedCount(),
+                    user.getReturnedCount()
+            ));
+        }
+        return snapshot;
+    }
+
+    private static MonthlyReport toReport(MonthlyReportSnapshot snapshot) {
+        List<UserActivitySummary> userActivity = snapshot.getUserActivity().stream()
+                .map(user -> new UserActivitySummary(
+                        user.getUserId(),
+                        user.getEmail(),
+                        user.getBorrowedCount(),
+                        user.getReturnedCount()
+                ))
+                .toList();
+        return new MonthlyReport(
+                YearMonth.from(snapshot.getReportMonth()),
+                snapshot.getBorrowedCount(),
+                snapshot.getReturnedCount(),
+                snapshot.getOverdueCount(),
+                userActivity,
+                snapshot.getGeneratedAt()
+        );
+    }
+}
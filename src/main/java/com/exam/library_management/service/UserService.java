@@ -3,7 +3,9 @@ import com.exam.library_management.exception.DuplicateResourceException;
 import com.exam.library_management.entity.User;
 import com.exam.library_management.enums.Role;
 import com.exam.library_management.dto.UserResponse;
+import com.exam.library_management.event.UserChangedEvent;
 import com.exam.library_management.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,11 +19,14 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -49,6 +54,7 @@ public class UserService {
             user.setCreatedAt(LocalDateTime.now());
 
             User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(email, libraryId));
 
             return new UserResponse(
                     savedUser.getLibraryId(),
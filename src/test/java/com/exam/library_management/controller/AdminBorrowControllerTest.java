@@ -1,7 +1,10 @@
 package com.exam.library_management.controller;
 
-import com.exam.library_management.entity.BorrowRecord;
+import com.exam.library_management.dto.BorrowBatchItemResult;
+import com.exam.library_management.dto.BorrowBatchResult;
+import com.exam.library_management.dto.BorrowRecordResponse;
 import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.service.BorrowBatchService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -9,13 +12,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AdminBorrowController.class)
@@ -29,19 +38,86 @@ class AdminBorrowControllerTest {
     @MockBean
     private BorrowRecordRepository repository;
 
+    @MockBean
+    private BorrowBatchService borrowBatchService;
+
     @Test
     @DisplayName("Should fetch all borrow records successfully")
     void getAllBorrowRecords_success() throws Exception {
 
-        BorrowRecord record = new BorrowRecord();
+        BorrowRecordResponse record = new BorrowRecordResponse(
+                1L, 2L, "user@test.com", 3L, "BK-3", "Clean Code",
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 15), null, BigDecimal.ZERO);
 
-        when(repository.findAll())
+        when(repository.findAllResponses())
                 .thenReturn(List.of(record));
 
         mockMvc.perform(get("/api/admin/borrow-records"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Borrow records fetched"))
-                .andExpect(jsonPath("$.data").isArray());
+                .andExpect(jsonPath("$.data").isArray())
+                .andExpect(jsonPath("$.data[0].userEmail").value("user@test.com"))
+                .andExpect(jsonPath("$.data[0].bookCode").value("BK-3"))
+                .andExpect(jsonPath("$.data[0].user").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return one result per item for a batch borrow")
+    void batchBorrow_success() throws Exception {
+
+        BorrowBatchResult result = new BorrowBatchResult(1, 1, List.of(
+                new BorrowBatchItemResult(0, 2L, 3L, true, 10L, LocalDate.of(2026, 1, 15), null, null),
+                new BorrowBatchItemResult(1, 4L, 3L, false, null, null, null,
+                        "This book is currently not available for borrowing")));
+
+        when(borrowBatchService.borrowBooks(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/admin/borrow-records/batch/borrow")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items": [{"userId": 2, "bookId": 3}, {"userId": 4, "bookId": 3}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Batch borrow processed"))
+                .andExpect(jsonPath("$.data.succeeded").value(1))
+                .andExpect(jsonPath("$.data.items[0].recordId").value(10))
+                .andExpect(jsonPath("$.data.items[1].success").value(false))
+                .andExpect(jsonPath("$.data.items[1].message")
+                        .value("This book is currently not available for borrowing"));
+    }
+
+    @Test
+    @DisplayName("Should report late fees per item for a batch return")
+    void batchReturn_success() throws Exception {
+
+        BorrowBatchResult result = new BorrowBatchResult(1, 0, List.of(
+                new BorrowBatchItemResult(0, 2L, 3L, true, 10L, LocalDate.of(2026, 1, 15),
+                        BigDecimal.valueOf(30), null)));
+
+        when(borrowBatchService.returnBooks(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/admin/borrow-records/batch/return")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items": [{"userId": 2, "bookId": 3}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Batch return processed"))
+                .andExpect(jsonPath("$.data.items[0].lateFee").value(30));
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with missing ids before processing anything")
+    void batchBorrow_invalidItemShouldFail() throws Exception {
+
+        mockMvc.perform(post("/api/admin/borrow-records/batch/borrow")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items": [{"userId": 2}]}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(borrowBatchService);
     }
 }
@@ -0,0 +1,172 @@
+package com.exam.library_management.controller;
+
+import com.exam.library_management.dto.MonthlyReport;
+import com.exam.library_management.dto.ReportBackfillStatus;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.ResourceNotFoundException;
+import com.exam.library_management.service.MonthlyActivityService;
+import com.exam.library_management.service.ReportBackfillService;
+import com.exam.library_management.service.ReportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminReportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class AdminReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MonthlyActivityService monthlyActivityService;
+
+    @MockBean
+    private ReportService reportService;
+
+    @MockBean
+    private ReportBackfillService reportBackfillService;
+
+    // =====================================================
+    // MONTHLY REPORT
+    // =====================================================
+    @Test
+    @DisplayName("Should return the report for the requested month")
+    void getMonthlyReport_success() throws Exception {
+
+        MonthlyReport report = new MonthlyReport(
+                YearMonth.of(2025, 3), 12, 9, 2,
+                List.of(new UserActivitySummary(1L, "user@test.com", 3, 2)),
+                LocalDateTime.of(2025, 4, 1, 8, 0));
+        when(reportService.getReport(YearMonth.of(2025, 3))).thenReturn(report);
+
+        mockMvc.perform(get("/api/admin/reports/monthly").param("month", "2025-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Monthly report fetched"))
+                .andExpect(jsonPath("$.data.month").value("2025-03"))
+                .andExpect(jsonPath("$.data.booksBorrowed").value(12))
+                .andExpect(jsonPath("$.data.overdueBooks").value(2))
+                .andExpect(jsonPath("$.data.userActivity[0].email").value("user@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should reject a future month")
+    void getMonthlyReport_futureMonth() throws Exception {
+
+        when(reportService.getReport(YearMonth.of(2999, 1)))
+                .thenThrow(new BadRequestException("Reports are not available for future months"));
+
+        mockMvc.perform(get("/api/admin/reports/monthly").param("month", "2999-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Reports are not available for future months"));
+    }
+
+    // =====================================================
+    // REBUILD ACTIVITY
+    // =====================================================
+    @Test
+    @DisplayName("Should rebuild the rollup for the requested month")
+    void rebuildActivity_success() throws Exception {
+
+        when(monthlyActivityService.rebuild(YearMonth.of(2025, 3))).thenReturn(42);
+
+        mockMvc.perform(post("/api/admin/reports/activity/rebuild").param("month", "2025-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Monthly activity rebuilt"))
+                .andExpect(jsonPath("$.data").value(42));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed month")
+    void rebuildActivity_badMonth() throws Exception {
+
+        mockMvc.perform(post("/api/admin/reports/activity/rebuild").param("month", "March"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verifyNoInteractions(monthlyActivityService);
+    }
+
+    @Test
+    @DisplayName("Should reject rebuilding a future month")
+    void rebuildActivity_futureMonth() throws Exception {
+
+        when(monthlyActivityService.rebuild(YearMonth.of(2999, 1)))
+                .thenThrow(new BadRequestException("Monthly activity cannot be rebuilt for future months"));
+
+        mockMvc.perform(post("/api/admin/reports/activity/rebuild").param("month", "2999-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Monthly activity cannot be rebuilt for future months"));
+    }
+
+    // =====================================================
+    // BACKFILL
+    // =====================================================
+    @Test
+    @DisplayName("Should start a backfill and return its progress")
+    void startBackfill_success() throws Exception {
+
+        ReportBackfillStatus status = new ReportBackfillStatus(
+                "job-1", YearMonth.of(2020, 1), YearMonth.of(2024, 12), true, 60, 0,
+                List.of(), LocalDateTime.of(2025, 1, 5, 9, 0), null);
+        when(reportBackfillService.start(YearMonth.of(2020, 1), YearMonth.of(2024, 12), true))
+                .thenReturn(status);
+
+        mockMvc.perform(post("/api/admin/reports/backfill")
+                        .param("from", "2020-01")
+                        .param("to", "2024-12")
+                        .param("rebuildActivity", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Report backfill started"))
+                .andExpect(jsonPath("$.data.id").value("job-1"))
+                .andExpect(jsonPath("$.data.totalMonths").value(60))
+                .andExpect(jsonPath("$.data.finishedAt").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should default to leaving the rollup as it is")
+    void startBackfill_defaultsRebuildActivityOff() throws Exception {
+
+        mockMvc.perform(post("/api/admin/reports/backfill")
+                        .param("from", "2024-01")
+                        .param("to", "2024-03"))
+                .andExpect(status().isOk());
+
+        verify(reportBackfillService).start(YearMonth.of(2024, 1), YearMonth.of(2024, 3), false);
+    }
+
+    @Test
+    @DisplayName("Should report when no backfill has run")
+    void getBackfillStatus_notStarted() throws Exception {
+
+        when(reportBackfillService.status())
+                .thenThrow(new ResourceNotFoundException("No report backfill has been started"));
+
+        mockMvc.perform(get("/api/admin/reports/backfill"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("No report backfill has been started"));
+    }
+}
@@ -11,10 +11,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.exam.library_management.dto.RegisterRequest;
 import com.exam.library_management.dto.UserResponse;
 import com.exam.library_management.enums.Role;
+import com.exam.library_management.exception.TooManyRequestsException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.mockito.Mockito;
 import org.springframework.http.MediaType;
 
+import java.time.Duration;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -78,7 +81,7 @@ class AuthControllerTest {
     
         LoginResponse mockResponse = new LoginResponse("jwt-token");
     
-        Mockito.when(authService.login(Mockito.any(LoginRequest.class)))
+        Mockito.when(authService.login(Mockito.any(LoginRequest.class), Mockito.eq("127.0.0.1")))
                 .thenReturn(mockResponse);
     
         mockMvc.perform(post("/api/auth/login")
@@ -89,4 +92,24 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").value("Login successful"))
                 .andExpect(jsonPath("$.data.token").value("jwt-token"));
     }
+
+    @Test
+    void login_throttled_shouldReturn429WithRetryAfter() throws Exception {
+
+        LoginRequest request = new LoginRequest();
+        request.setUsername("test@gmail.com");
+        request.setPassword("password123");
+
+        Mockito.when(authService.login(Mockito.any(LoginRequest.class), Mockito.anyString()))
+                .thenThrow(new TooManyRequestsException("Too many login attempts. Please try again later.",
+                        Duration.ofMinutes(1)));
+
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Too many login attempts. Please try again later."));
+    }
 }
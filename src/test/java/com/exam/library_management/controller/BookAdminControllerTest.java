@@ -1,8 +1,18 @@
 package com.exam.library_management.controller;
 
 import com.exam.library_management.dto.ApiResponse;
+import com.exam.library_management.dto.BookChangesResponse;
+import com.exam.library_management.dto.BookImportError;
+import com.exam.library_management.dto.BookImportResult;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.dto.CursorPage;
 import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookFileFormat;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.service.BookExportService;
+import com.exam.library_management.service.BookImportService;
 import com.exam.library_management.service.BookService;
+import com.exam.library_management.service.CatalogVersion;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,10 +20,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -23,6 +38,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookAdminController.class)
+@Import(CatalogVersion.class)
 @AutoConfigureMockMvc(addFilters = false)
 @ActiveProfiles("test")
 class BookAdminControllerTest {
@@ -36,6 +52,12 @@ class BookAdminControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookImportService bookImportService;
+
+    @MockBean
+    private BookExportService bookExportService;
+
     // -------------------------------------------------
     // ADD BOOK
     // -------------------------------------------------
@@ -138,8 +160,7 @@ class BookAdminControllerTest {
     @WithMockUser(roles = "ADMIN")
     void getAllBooks_success() throws Exception {
 
-        Book book = new Book();
-        book.setTitle("Spring");
+        BookResponse book = new BookResponse(1L, "BK-1", "Spring", "Rod Johnson", BookStatus.AVAILABLE);
 
         when(bookService.getAllBooks())
                 .thenReturn(List.of(book));
@@ -153,4 +174,125 @@ class BookAdminControllerTest {
 
         verify(bookService, times(1)).getAllBooks();
     }
+
+    @Test
+    @DisplayName("Get books page - first page without cursor")
+    @WithMockUser(roles = "ADMIN")
+    void getBooksPage_success() throws Exception {
+
+        BookResponse book = new BookResponse(1L, "BK-1", "Spring", "Rod Johnson", BookStatus.AVAILABLE);
+
+        when(bookService.getAllBooks(null, 20))
+                .thenReturn(new CursorPage<>(List.of(book), null));
+
+        mockMvc.perform(get("/api/admin/books").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Books fetched successfully"))
+                .andExpect(jsonPath("$.data.items[0].title").value("Spring"))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+        verify(bookService, never()).getAllBooks();
+    }
+
+    @Test
+    @DisplayName("Get books page - unchanged catalog returns 304")
+    @WithMockUser(roles = "ADMIN")
+    void getBooksPage_notModified() throws Exception {
+
+        String etag = mockMvc.perform(get("/api/admin/books").param("size", "20"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/admin/books").param("size", "20").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(bookService, times(1)).getAllBooks(null, 20);
+    }
+
+    // -------------------------------------------------
+    // CHANGE FEED
+    // -------------------------------------------------
+    @Test
+    @DisplayName("Get changes - delegates since and size")
+    @WithMockUser(roles = "ADMIN")
+    void getChanges_success() throws Exception {
+
+        when(bookService.getChangesSince(42L, 100))
+                .thenReturn(new BookChangesResponse(42L, 45L, false, false, List.of()));
+
+        mockMvc.perform(get("/api/admin/books/changes").param("since", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Book changes fetched successfully"))
+                .andExpect(jsonPath("$.data.version").value(45))
+                .andExpect(jsonPath("$.data.resyncRequired").value(false));
+    }
+
+    // -------------------------------------------------
+    // IMPORT BOOKS
+    // -------------------------------------------------
+    @Test
+    @DisplayName("Import books - CSV body")
+    @WithMockUser(roles = "ADMIN")
+    void importBooks_csv() throws Exception {
+
+        BookImportResult result = new BookImportResult(1, 1,
+                List.of(new BookImportError(3, "BK-1", "Book with this code already exists")));
+
+        when(bookImportService.importBooks(any(Reader.class), eq(BookFileFormat.CSV)))
+                .thenReturn(result);
+
+        mockMvc.perform(post("/api/admin/books/import")
+                        .contentType("text/csv")
+                        .content("bookCode,title,author\nBK-1,Title,Author\nBK-1,Again,Author\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Books imported successfully"))
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].line").value(3));
+    }
+
+    @Test
+    @DisplayName("Import books - NDJSON body")
+    @WithMockUser(roles = "ADMIN")
+    void importBooks_ndjson() throws Exception {
+
+        when(bookImportService.importBooks(any(Reader.class), eq(BookFileFormat.NDJSON)))
+                .thenReturn(new BookImportResult(1, 0, List.of()));
+
+        mockMvc.perform(post("/api/admin/books/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"bookCode\":\"BK-1\",\"title\":\"T\",\"author\":\"A\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.failed").value(0));
+
+        verify(bookImportService).importBooks(any(Reader.class), eq(BookFileFormat.NDJSON));
+    }
+
+    // -------------------------------------------------
+    // EXPORT BOOKS
+    // -------------------------------------------------
+    @Test
+    @DisplayName("Export books - streamed CSV attachment")
+    @WithMockUser(roles = "ADMIN")
+    void exportBooks_csv() throws Exception {
+
+        when(bookExportService.resolveFormat("csv")).thenReturn(BookFileFormat.CSV);
+        when(bookExportService.exportBooks(eq(BookFileFormat.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(1);
+                    out.write("id,bookCode,title,author,status\n".getBytes(StandardCharsets.UTF_8));
+                    return 0L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/admin/books/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"books.csv\""))
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,bookCode,title,author,status\n"));
+    }
 }
@@ -1,7 +1,12 @@
 package com.exam.library_management.controller;
 
-import com.exam.library_management.entity.Book;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.dto.BookSearchResponse;
+import com.exam.library_management.dto.CursorPage;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.service.BookAvailabilityBroadcaster;
 import com.exam.library_management.service.BookService;
+import com.exam.library_management.service.CatalogVersion;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.Test;
@@ -13,14 +18,18 @@ import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookUserController.class)
+@Import(CatalogVersion.class)
 @ActiveProfiles("test")
 @AutoConfigureMockMvc(addFilters = false) // same strategy as your admin test
 class BookUserControllerTest {
@@ -31,9 +40,15 @@ class BookUserControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookAvailabilityBroadcaster availabilityBroadcaster;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     // -------------------------------------------------
     // SUCCESS - USER ROLE
     // -------------------------------------------------
@@ -41,9 +56,8 @@ class BookUserControllerTest {
     @WithMockUser(roles = "USER")
     void viewAvailableBooks_success() throws Exception {
 
-        Book book = new Book();
-        book.setTitle("Spring Boot");
-        book.setAuthor("John Doe");
+        BookResponse book = new BookResponse(
+                1L, "BK-1", "Spring Boot", "John Doe", BookStatus.AVAILABLE);
 
         when(bookService.getAvailableBooks())
                 .thenReturn(List.of(book));
@@ -57,6 +71,98 @@ class BookUserControllerTest {
                         .value("Spring Boot"));
     }
 
+    // -------------------------------------------------
+    // SUCCESS - KEYSET PAGE
+    // -------------------------------------------------
+    @Test
+    @WithMockUser(roles = "USER")
+    void viewAvailableBooksPage_success() throws Exception {
+
+        BookResponse book = new BookResponse(
+                7L, "BK-7", "Spring Boot", "John Doe", BookStatus.AVAILABLE);
+
+        when(bookService.getAvailableBooks("abc", 1))
+                .thenReturn(new CursorPage<>(List.of(book), "next-token"));
+
+        mockMvc.perform(get("/api/user/books")
+                        .param("cursor", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.items[0].title").value("Spring Boot"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-token"));
+    }
+
+    // -------------------------------------------------
+    // CONDITIONAL GET - ETAG
+    // -------------------------------------------------
+    @Test
+    @WithMockUser(roles = "USER")
+    void viewAvailableBooks_notModified_skipsService() throws Exception {
+
+        String etag = catalogVersion.etag();
+
+        mockMvc.perform(get("/api/user/books").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(bookService, never()).getAvailableBooks();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void viewAvailableBooks_staleEtag_returnsFreshList() throws Exception {
+
+        String staleEtag = catalogVersion.etag();
+        catalogVersion.onBookChanged(null);
+
+        when(bookService.getAvailableBooks())
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/user/books").header("If-None-Match", staleEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", catalogVersion.etag()))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$.success").value(true));
+    }
+
+    // -------------------------------------------------
+    // SUCCESS - SEARCH
+    // -------------------------------------------------
+    @Test
+    @WithMockUser(roles = "USER")
+    void searchBooks_success() throws Exception {
+
+        BookResponse book = new BookResponse(
+                3L, "BK-3", "Clean Code", "Robert C. Martin", BookStatus.AVAILABLE);
+
+        when(bookService.searchBooks("clean", 0, 20))
+                .thenReturn(new BookSearchResponse(1, 0, 20, List.of(book)));
+
+        mockMvc.perform(get("/api/user/books/search").param("q", "clean"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Books searched successfully"))
+                .andExpect(jsonPath("$.data.total").value(1))
+                .andExpect(jsonPath("$.data.items[0].title").value("Clean Code"));
+    }
+
+    // -------------------------------------------------
+    // SUCCESS - AVAILABILITY STREAM
+    // -------------------------------------------------
+    @Test
+    @WithMockUser(roles = "USER")
+    void streamAvailability_opensEventStream() throws Exception {
+
+        when(availabilityBroadcaster.subscribe())
+                .thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/user/books/stream"))
+                .andExpect(request().asyncStarted());
+
+        verify(availabilityBroadcaster).subscribe();
+    }
+
     // -------------------------------------------------
     // FORBIDDEN - ADMIN ROLE (simulation)
     // -------------------------------------------------
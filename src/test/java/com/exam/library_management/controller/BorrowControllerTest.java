@@ -3,10 +3,14 @@ package com.exam.library_management.controller;
 import com.exam.library_management.entity.BorrowRecord;
 import com.exam.library_management.entity.User;
 import com.exam.library_management.enums.Role;
+import com.exam.library_management.exception.ServiceBusyException;
 import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.security.AuthenticatedUser;
+import com.exam.library_management.service.BorrowAdmission;
 import com.exam.library_management.service.BorrowService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -20,9 +24,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,9 +50,18 @@ class BorrowControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private BorrowAdmission borrowAdmission;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void admitImmediately() {
+        when(borrowAdmission.admit(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
     // =====================================================
     // BORROW BOOK - SUCCESS
     // =====================================================
@@ -76,6 +94,36 @@ class BorrowControllerTest {
                 .andExpect(jsonPath("$.data.dueDate").exists());
     }
 
+    // =====================================================
+    // BORROW BOOK - STATELESS TOKEN PRINCIPAL
+    // =====================================================
+    @Test
+    void borrowBook_statelessPrincipal_shouldNotLookUpUserByEmail() throws Exception {
+
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "user@library.com", Role.USER);
+
+        User user = new User();
+        user.setId(7L);
+
+        BorrowRecord record = new BorrowRecord();
+        record.setBorrowDate(LocalDate.now());
+        record.setDueDate(LocalDate.now().plusDays(7));
+
+        when(userRepository.getReferenceById(7L))
+                .thenReturn(user);
+
+        when(borrowService.borrowBook(eq(user), eq(1L)))
+                .thenReturn(record);
+
+        mockMvc.perform(post("/api/user/borrow/book/1")
+                        .principal(new UsernamePasswordAuthenticationToken(
+                                principal, null, principal.getAuthorities())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.dueDate").exists());
+
+        verify(userRepository, never()).findByEmail(any());
+    }
+
     // =====================================================
     // BORROW BOOK - ROLE NOT USER
     // =====================================================
@@ -96,6 +144,32 @@ class BorrowControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // =====================================================
+    // BORROW BOOK - ADMISSION QUEUE FULL
+    // =====================================================
+    @Test
+    void borrowBook_busy_shouldReturnServiceUnavailable() throws Exception {
+
+        String email = "user@library.com";
+
+        User user = new User();
+        user.setEmail(email);
+        user.setRole(Role.USER);
+
+        when(userRepository.findByEmail(email))
+                .thenReturn(Optional.of(user));
+
+        when(borrowAdmission.admit(eq(1L), any()))
+                .thenThrow(new ServiceBusyException("This book is in high demand. Please try again shortly."));
+
+        mockMvc.perform(post("/api/user/borrow/book/1")
+                        .principal(new UsernamePasswordAuthenticationToken(email, null)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verifyNoInteractions(borrowService);
+    }
+
     // =====================================================
     // RETURN BOOK - SUCCESS
     // =====================================================
@@ -0,0 +1,130 @@
+package com.exam.library_management.controller;
+
+import com.exam.library_management.dto.HoldResponse;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.service.HoldService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HoldController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class HoldControllerTest {
+
+    private static final String EMAIL = "user@library.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HoldService holdService;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = new User();
+        user.setId(3L);
+        user.setEmail(EMAIL);
+        user.setRole(Role.USER);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    // =====================================================
+    // PLACE HOLD
+    // =====================================================
+    @Test
+    void placeHold_success() throws Exception {
+
+        HoldResponse response = new HoldResponse(10L, 1L, "BK-1", "Clean Code",
+                HoldStatus.WAITING, LocalDateTime.now(), null);
+        response.setPosition(2);
+        when(holdService.placeHold(eq(user), eq(1L))).thenReturn(response);
+
+        mockMvc.perform(post("/api/user/holds/book/1")
+                        .principal(new UsernamePasswordAuthenticationToken(EMAIL, null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Hold placed successfully"))
+                .andExpect(jsonPath("$.data.status").value("WAITING"))
+                .andExpect(jsonPath("$.data.position").value(2));
+    }
+
+    @Test
+    void placeHold_availableBookShouldFail() throws Exception {
+
+        when(holdService.placeHold(eq(user), eq(1L)))
+                .thenThrow(new BadRequestException("This book is available. Borrow it instead of placing a hold"));
+
+        mockMvc.perform(post("/api/user/holds/book/1")
+                        .principal(new UsernamePasswordAuthenticationToken(EMAIL, null)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    // =====================================================
+    // LIST AND CANCEL HOLDS
+    // =====================================================
+    @Test
+    void myHolds_success() throws Exception {
+
+        HoldResponse ready = new HoldResponse(11L, 2L, "BK-2", "Refactoring",
+                HoldStatus.READY, LocalDateTime.now(), LocalDateTime.now().plusDays(2));
+        when(holdService.getHolds(user)).thenReturn(List.of(ready));
+
+        mockMvc.perform(get("/api/user/holds")
+                        .principal(new UsernamePasswordAuthenticationToken(EMAIL, null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].status").value("READY"))
+                .andExpect(jsonPath("$.data[0].readyUntil").exists());
+    }
+
+    @Test
+    void cancelHold_success() throws Exception {
+
+        mockMvc.perform(delete("/api/user/holds/11")
+                        .principal(new UsernamePasswordAuthenticationToken(EMAIL, null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Hold cancelled successfully"));
+
+        verify(holdService).cancelHold(user, 11L);
+    }
+
+    @Test
+    void cancelHold_closedHoldShouldFail() throws Exception {
+
+        doThrow(new BadRequestException("This hold is no longer active"))
+                .when(holdService).cancelHold(user, 11L);
+
+        mockMvc.perform(delete("/api/user/holds/11")
+                        .principal(new UsernamePasswordAuthenticationToken(EMAIL, null)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("This hold is no longer active"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.exam.library_management.integration;
 
+import com.exam.library_management.service.BookAvailabilityIndex;
+import com.exam.library_management.service.BookSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -30,6 +32,12 @@ public abstract class BaseIntegrationTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    protected BookAvailabilityIndex bookAvailabilityIndex;
+
+    @Autowired
+    protected BookSearchIndex bookSearchIndex;
+
     @DynamicPropertySource
     static void registerDatasourceProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.datasource.url", MYSQL_CONTAINER::getJdbcUrl);
@@ -40,9 +48,16 @@ public abstract class BaseIntegrationTest {
     @BeforeEach
     void cleanDatabase() {
         jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
+        jdbcTemplate.execute("TRUNCATE TABLE monthly_report_snapshot_users");
+        jdbcTemplate.execute("TRUNCATE TABLE monthly_report_snapshots");
+        jdbcTemplate.execute("TRUNCATE TABLE monthly_activity");
+        jdbcTemplate.execute("TRUNCATE TABLE holds");
         jdbcTemplate.execute("TRUNCATE TABLE borrow_records");
         jdbcTemplate.execute("TRUNCATE TABLE books");
         jdbcTemplate.execute("TRUNCATE TABLE users");
         jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
+        // Truncation bypasses the service write paths, so resync in-memory catalog views.
+        bookAvailabilityIndex.rebuild();
+        bookSearchIndex.rebuild();
     }
 }
@@ -18,12 +18,16 @@ import org.springframework.test.web.servlet.MvcResult;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class BookAdminControllerIntegrationTest extends BaseIntegrationTest {
@@ -281,6 +285,149 @@ public class BookAdminControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.data.length()").value(2));
     }
 
+    @Test
+    void shouldBulkImportCsvAndReportDuplicates() throws Exception {
+        String adminToken = createAdminAndLogin();
+
+        mockMvc.perform(post("/api/admin/books/add")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(addPayload("IMP-1", "Already There", "Someone")))
+                .andExpect(status().isOk());
+
+        String csv = """
+                bookCode,title,author
+                IMP-1,Duplicate Of Stored,Someone
+                IMP-2,Working Effectively with Legacy Code,Michael Feathers
+                IMP-3,"Structure and Interpretation, 2nd Edition",Abelson
+                IMP-2,Duplicate In File,Someone
+                IMP-4,,No Title
+                """;
+
+        mockMvc.perform(post("/api/admin/books/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.failed").value(3))
+                .andExpect(jsonPath("$.data.errors.length()").value(3));
+
+        assertEquals(3, bookRepository.count());
+        assertEquals("Structure and Interpretation, 2nd Edition",
+                bookRepository.findByBookCode("IMP-3").orElseThrow().getTitle());
+        assertEquals(1, bookSearchIndex.search("feathers legacy", 0, 10).getTotal());
+        assertTrue(bookAvailabilityIndex.availableBooks().stream()
+                .anyMatch(book -> book.getBookCode().equals("IMP-2")));
+    }
+
+    @Test
+    void shouldBulkImportNdjson() throws Exception {
+        String adminToken = createAdminAndLogin();
+
+        String ndjson = """
+                {"bookCode":"IMP-10","title":"Release It!","author":"Michael Nygard"}
+                {"bookCode":"IMP-11","title":"Accelerate","author":"Nicole Forsgren"}
+                """;
+
+        mockMvc.perform(post("/api/admin/books/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.failed").value(0));
+
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    void shouldStreamCatalogExportInIdOrder() throws Exception {
+        String adminToken = createAdminAndLogin();
+
+        for (int i = 1; i <= 3; i++) {
+            Book book = new Book();
+            book.setBookCode("EXP-" + i);
+            book.setTitle("Export, Volume " + i);
+            book.setAuthor("Author " + i);
+            book.setStatus(BookStatus.AVAILABLE);
+            bookRepository.save(book);
+        }
+
+        MvcResult ndjson = mockMvc.perform(get("/api/admin/books/export")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("EXP-1", objectMapper.readTree(lines[0]).get("bookCode").asText());
+        assertEquals("EXP-3", objectMapper.readTree(lines[2]).get("bookCode").asText());
+
+        MvcResult csv = mockMvc.perform(get("/api/admin/books/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertTrue(body.startsWith("id,bookCode,title,author,status\n"));
+        assertTrue(body.contains(",EXP-2,\"Export, Volume 2\",Author 2,AVAILABLE\n"));
+    }
+
+    @Test
+    void shouldReturnOnlyBooksChangedSinceVersion() throws Exception {
+        String adminToken = createAdminAndLogin();
+
+        mockMvc.perform(post("/api/admin/books/add")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(addPayload("CHG-1", "Before Sync", "Author")))
+                .andExpect(status().isOk());
+
+        // First sync: a version from nowhere forces a full reload and hands out the current version.
+        MvcResult initial = mockMvc.perform(get("/api/admin/books/changes")
+                        .param("since", "0")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.resyncRequired").value(true))
+                .andReturn();
+        long version = objectMapper.readTree(initial.getResponse().getContentAsString())
+                .get("data").get("version").asLong();
+
+        MvcResult added = mockMvc.perform(post("/api/admin/books/add")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(addPayload("CHG-2", "After Sync", "Author")))
+                .andExpect(status().isOk())
+                .andReturn();
+        long addedId = objectMapper.readTree(added.getResponse().getContentAsString())
+                .get("data").get("id").asLong();
+
+        mockMvc.perform(delete("/api/admin/books/delete/{id}", addedId)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/books/changes")
+                        .param("since", String.valueOf(version))
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.resyncRequired").value(false))
+                .andExpect(jsonPath("$.data.changes.length()").value(1))
+                .andExpect(jsonPath("$.data.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.data.changes[0].book.bookCode").value("CHG-2"));
+    }
+
     @Test
     void shouldReturnUnauthorizedWithoutToken() throws Exception {
         mockMvc.perform(get("/api/admin/books"))
@@ -23,6 +23,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -204,6 +205,8 @@ public class BookControllerIntegrationTest extends BaseIntegrationTest {
         borrowed.setAuthor("Author B");
         borrowed.setStatus(BookStatus.BORROWED);
         bookRepository.save(borrowed);
+        // Seeded straight through the repository, so refresh the availability index.
+        bookAvailabilityIndex.rebuild();
 
         mockMvc.perform(get("/api/user/books")
                         .header("Authorization", "Bearer " + userToken))
@@ -214,6 +217,68 @@ public class BookControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.data[0].status").value("AVAILABLE"));
     }
 
+    @Test
+    void shouldFindBooksAddedByAdminThroughSearch() throws Exception {
+        String adminToken = createAdminAndLogin();
+        String userToken = registerUserAndLogin();
+
+        mockMvc.perform(post("/api/admin/books/add")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(adminBookPayload("BOOK-5001", "Refactoring", "Martin Fowler")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/admin/books/add")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(adminBookPayload("BOOK-5002", "Patterns of Enterprise Architecture", "Martin Fowler")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/user/books/search")
+                        .param("q", "fowler refac")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(1))
+                .andExpect(jsonPath("$.data.items[0].bookCode").value("BOOK-5001"));
+    }
+
+    @Test
+    void shouldAnswerUnchangedListingPollsWithNotModified() throws Exception {
+        String adminToken = createAdminAndLogin();
+        String userToken = registerUserAndLogin();
+
+        mockMvc.perform(post("/api/admin/books/add")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(adminBookPayload("BOOK-6001", "Accelerate", "Nicole Forsgren")))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/api/user/books")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/user/books")
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/admin/books/add")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(adminBookPayload("BOOK-6002", "Release It!", "Michael Nygard")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/user/books")
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2));
+    }
+
     @Test
     void shouldDenyUserAccessToAdminEndpoints() throws Exception {
         String userToken = registerUserAndLogin();
@@ -1,5 +1,6 @@
 package com.exam.library_management.integration;
 
+import com.exam.library_management.dto.BookResponse;
 import com.exam.library_management.entity.Book;
 import com.exam.library_management.enums.BookStatus;
 import com.exam.library_management.repository.BookRepository;
@@ -7,6 +8,7 @@ import com.exam.library_management.repository.BookRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -82,4 +84,29 @@ public class BookRepositoryIntegrationTest {
         assertEquals(1, availableBooks.size());
         assertEquals("BOOK002", availableBooks.get(0).getBookCode());
     }
+
+    @Test
+    void shouldSeekBookProjectionsAfterGivenId() {
+
+        Book first = saveBook("PROJ001", BookStatus.AVAILABLE);
+        Book second = saveBook("PROJ002", BookStatus.BORROWED);
+        saveBook("PROJ003", BookStatus.AVAILABLE);
+
+        List<BookResponse> page = bookRepository.findResponsesAfter(first.getId(), PageRequest.of(0, 1));
+
+        assertEquals(1, page.size());
+        assertEquals(second.getId(), page.get(0).getId());
+        assertEquals("PROJ002", page.get(0).getBookCode());
+        assertEquals(BookStatus.BORROWED, page.get(0).getStatus());
+        assertEquals(3, bookRepository.findAllResponses().size());
+    }
+
+    private Book saveBook(String code, BookStatus status) {
+        Book book = new Book();
+        book.setTitle("Title " + code);
+        book.setAuthor("Author " + code);
+        book.setBookCode(code);
+        book.setStatus(status);
+        return bookRepository.save(book);
+    }
 }
@@ -0,0 +1,155 @@
+package com.exam.library_management.integration;
+
+import com.exam.library_management.dto.BorrowBatchItem;
+import com.exam.library_management.dto.BorrowBatchResult;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.BorrowRecord;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.service.BorrowBatchService;
+import com.exam.library_management.service.HoldService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BorrowBatchIntegrationTest extends BaseIntegrationTest {
+
+    private static final int DROP_BOX_SIZE = 2_000;
+
+    @Autowired
+    private BorrowBatchService borrowBatchService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldBorrowAndReturnADropBoxWorthOfBooks() {
+        List<User> users = new ArrayList<>(DROP_BOX_SIZE);
+        List<Book> books = new ArrayList<>(DROP_BOX_SIZE);
+        for (int i = 0; i < DROP_BOX_SIZE; i++) {
+            users.add(user("DESK" + i));
+            books.add(book("DESK-" + i));
+        }
+        users = userRepository.saveAll(users);
+        books = bookRepository.saveAll(books);
+
+        List<BorrowBatchItem> items = new ArrayList<>(DROP_BOX_SIZE);
+        for (int i = 0; i < DROP_BOX_SIZE; i++) {
+            items.add(new BorrowBatchItem(users.get(i).getId(), books.get(i).getId()));
+        }
+
+        BorrowBatchResult borrowed = borrowBatchService.borrowBooks(items);
+        assertEquals(DROP_BOX_SIZE, borrowed.getSucceeded());
+        assertEquals(DROP_BOX_SIZE, borrowRecordRepository.count());
+        assertEquals(DROP_BOX_SIZE, bookRepository.findByStatus(BookStatus.BORROWED).size());
+        assertEquals(0, bookAvailabilityIndex.availableBooks().size());
+
+        // Half of the loans are three days overdue by the time they come back.
+        jdbcTemplate.update("UPDATE borrow_records SET due_date = ? WHERE MOD(id, 2) = 0",
+                LocalDate.now().minusDays(3));
+
+        BorrowBatchResult returned = borrowBatchService.returnBooks(items);
+        assertEquals(DROP_BOX_SIZE, returned.getSucceeded());
+        assertEquals(DROP_BOX_SIZE, bookRepository.findByStatus(BookStatus.AVAILABLE).size());
+        assertEquals(DROP_BOX_SIZE, bookAvailabilityIndex.availableBooks().size());
+        for (BorrowRecord record : borrowRecordRepository.findAll()) {
+            assertNotNull(record.getReturnDate());
+            BigDecimal expected = record.getId() % 2 == 0 ? BigDecimal.valueOf(30) : BigDecimal.ZERO;
+            assertEquals(0, expected.compareTo(record.getLateFee()));
+        }
+    }
+
+    @Test
+    void shouldFailOnlyTheItemsThatBreakARule() {
+        User first = userRepository.save(user("RULE1"));
+        User second = userRepository.save(user("RULE2"));
+        Long bookId = bookRepository.save(book("RULE-1")).getId();
+        Long otherBookId = bookRepository.save(book("RULE-2")).getId();
+
+        BorrowBatchResult result = borrowBatchService.borrowBooks(List.of(
+                new BorrowBatchItem(first.getId(), bookId),
+                new BorrowBatchItem(second.getId(), bookId),
+                new BorrowBatchItem(first.getId(), otherBookId),
+                new BorrowBatchItem(second.getId(), 999_999L)));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals("This book is currently not available for borrowing", result.getItems().get(1).getMessage());
+        assertEquals("You already have a borrowed book. Please return it first.",
+                result.getItems().get(2).getMessage());
+        assertEquals("Book not found", result.getItems().get(3).getMessage());
+        assertEquals(BookStatus.AVAILABLE, bookRepository.findById(otherBookId).orElseThrow().getStatus());
+
+        BorrowBatchResult wrongUser = borrowBatchService.returnBooks(List.of(
+                new BorrowBatchItem(second.getId(), bookId)));
+        assertFalse(wrongUser.getItems().get(0).isSuccess());
+        assertEquals(BookStatus.BORROWED, bookRepository.findById(bookId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void batchReturn_ShouldReserveBookForFirstWaiter() {
+        User holder = userRepository.save(user("HAND1"));
+        User waiter = userRepository.save(user("HAND2"));
+        Long bookId = bookRepository.save(book("HAND-1")).getId();
+
+        borrowBatchService.borrowBooks(List.of(new BorrowBatchItem(holder.getId(), bookId)));
+        holdService.placeHold(waiter, bookId);
+
+        assertTrue(borrowBatchService.returnBooks(List.of(new BorrowBatchItem(holder.getId(), bookId)))
+                .getItems().get(0).isSuccess());
+        assertEquals(BookStatus.RESERVED, bookRepository.findById(bookId).orElseThrow().getStatus());
+        assertEquals(HoldStatus.READY, holdService.getHolds(waiter).get(0).getStatus());
+
+        // The batch borrow path honours the reservation too.
+        BorrowBatchResult result = borrowBatchService.borrowBooks(List.of(
+                new BorrowBatchItem(holder.getId(), bookId),
+                new BorrowBatchItem(waiter.getId(), bookId)));
+        assertFalse(result.getItems().get(0).isSuccess());
+        assertTrue(result.getItems().get(1).isSuccess());
+        assertEquals(List.of(), holdService.getHolds(waiter));
+    }
+
+    private static User user(String libraryId) {
+        User user = new User();
+        user.setLibraryId(libraryId);
+        user.setEmail(libraryId.toLowerCase() + "@test.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private static Book book(String code) {
+        Book book = new Book();
+        book.setBookCode(code);
+        book.setTitle("Title " + code);
+        book.setAuthor("Author");
+        book.setStatus(BookStatus.AVAILABLE);
+        return book;
+    }
+}
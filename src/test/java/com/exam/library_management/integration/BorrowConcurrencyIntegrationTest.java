@@ -0,0 +1,265 @@
+package com.exam.library_management.integration;
+
+import com.exam.library_management.dto.BorrowBatchItem;
+import com.exam.library_management.dto.BorrowBatchResult;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.BorrowRecord;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.service.BorrowBatchService;
+import com.exam.library_management.service.BorrowService;
+import com.exam.library_management.service.HoldService;
+import com.exam.library_management.service.MonthlyActivityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BorrowConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final int BORROWERS = 2_000;
+    private static final int BOOKS_PER_USER = 200;
+    private static final int THREADS = 64;
+    private static final int RETURN_RACES = 30;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private BorrowBatchService borrowBatchService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private MonthlyActivityService monthlyActivityService;
+
+    @Test
+    void shouldLetExactlyOneOfManyConcurrentBorrowersClaimTheSameBook() throws Exception {
+        Book book = new Book();
+        book.setBookCode("HOT-0001");
+        book.setTitle("Hot Book");
+        book.setAuthor("Popular Author");
+        book.setStatus(BookStatus.AVAILABLE);
+        Long bookId = bookRepository.save(book).getId();
+
+        List<User> borrowers = new ArrayList<>(BORROWERS);
+        for (int i = 0; i < BORROWERS; i++) {
+            User user = new User();
+            user.setLibraryId("RACE" + i);
+            user.setEmail("race-" + i + "@test.com");
+            user.setPassword("not-used");
+            user.setRole(Role.USER);
+            borrowers.add(user);
+        }
+        borrowers = userRepository.saveAll(borrowers);
+
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> attempts = new ArrayList<>(BORROWERS);
+            for (User borrower : borrowers) {
+                attempts.add(pool.submit(() -> {
+                    try {
+                        start.await();
+                        borrowService.borrowBook(borrower, bookId);
+                        winners.incrementAndGet();
+                    } catch (BadRequestException ex) {
+                        rejected.incrementAndGet();
+                    } catch (Throwable ex) {
+                        unexpected.add(ex);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(1, winners.get());
+        assertEquals(BORROWERS - 1, rejected.get());
+
+        List<BorrowRecord> records = borrowRecordRepository.findAll();
+        assertEquals(1, records.size());
+        assertEquals(bookId, records.get(0).getBook().getId());
+        assertEquals(BookStatus.BORROWED, bookRepository.findById(bookId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void shouldLetOneUserHoldOnlyOneLoan_WhenBorrowingManyBooksConcurrently() throws Exception {
+        User user = new User();
+        user.setLibraryId("GREEDY1");
+        user.setEmail("greedy@test.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        User borrower = userRepository.save(user);
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS_PER_USER; i++) {
+            Book book = new Book();
+            book.setBookCode("MANY-" + i);
+            book.setTitle("Book " + i);
+            book.setAuthor("Author " + i);
+            book.setStatus(BookStatus.AVAILABLE);
+            books.add(book);
+        }
+        books = bookRepository.saveAll(books);
+
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> attempts = new ArrayList<>(books.size());
+            for (Book book : books) {
+                attempts.add(pool.submit(() -> {
+                    try {
+                        start.await();
+                        borrowService.borrowBook(borrower, book.getId());
+                        winners.incrementAndGet();
+                    } catch (BadRequestException ex) {
+                        rejected.incrementAndGet();
+                    } catch (Throwable ex) {
+                        unexpected.add(ex);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(1, winners.get());
+        assertEquals(BOOKS_PER_USER - 1, rejected.get());
+        assertEquals(1, borrowRecordRepository.count());
+        // Every losing attempt rolled back its book claim.
+        assertEquals(BOOKS_PER_USER - 1, bookRepository.findByStatus(BookStatus.AVAILABLE).size());
+    }
+
+    @Test
+    void shouldCloseALoanOnce_WhenDeskBatchAndUserReturnItTogether() throws Exception {
+        List<User> readers = new ArrayList<>();
+        List<Long> bookIds = new ArrayList<>();
+        List<User> waiters = new ArrayList<>();
+        for (int i = 0; i < RETURN_RACES; i++) {
+            User reader = userRepository.save(user("BACK" + i));
+            Book book = new Book();
+            book.setBookCode("BACK-" + i);
+            book.setTitle("Book " + i);
+            book.setAuthor("Author " + i);
+            book.setStatus(BookStatus.AVAILABLE);
+            Long bookId = bookRepository.save(book).getId();
+            borrowService.borrowBook(reader, bookId);
+            // Two waiters per book: a double close would hand the one copy to both.
+            for (int w = 0; w < 2; w++) {
+                User waiter = userRepository.save(user("WAIT" + i + "-" + w));
+                holdService.placeHold(waiter, bookId);
+                waiters.add(waiter);
+            }
+            readers.add(reader);
+            bookIds.add(bookId);
+        }
+
+        AtomicInteger closed = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < RETURN_RACES; i++) {
+                User reader = readers.get(i);
+                Long bookId = bookIds.get(i);
+                attempts.add(pool.submit(() -> {
+                    try {
+                        start.await();
+                        borrowService.returnBook(reader);
+                        closed.incrementAndGet();
+                    } catch (BadRequestException ex) {
+                        // The desk got there first.
+                    } catch (Throwable ex) {
+                        unexpected.add(ex);
+                    }
+                }));
+                attempts.add(pool.submit(() -> {
+                    try {
+                        start.await();
+                        BorrowBatchResult result = borrowBatchService.returnBooks(
+                                List.of(new BorrowBatchItem(reader.getId(), bookId)));
+                        if (result.getSucceeded() == 1) {
+                            closed.incrementAndGet();
+                        }
+                    } catch (Throwable ex) {
+                        unexpected.add(ex);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(RETURN_RACES, closed.get());
+        YearMonth month = YearMonth.now();
+        assertEquals(RETURN_RACES, monthlyActivityService.totals(month, month).getReturnedCount());
+        for (int i = 0; i < RETURN_RACES; i++) {
+            assertEquals(BookStatus.RESERVED, bookRepository.findById(bookIds.get(i)).orElseThrow().getStatus());
+            assertEquals(HoldStatus.READY, holdService.getHolds(waiters.get(2 * i)).get(0).getStatus());
+            assertEquals(HoldStatus.WAITING, holdService.getHolds(waiters.get(2 * i + 1)).get(0).getStatus());
+        }
+    }
+
+    private static User user(String libraryId) {
+        User user = new User();
+        user.setLibraryId(libraryId);
+        user.setEmail(libraryId.toLowerCase() + "@test.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        return user;
+    }
+}
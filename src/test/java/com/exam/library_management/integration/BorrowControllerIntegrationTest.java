@@ -18,6 +18,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,6 +27,7 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
@@ -33,6 +35,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class BorrowControllerIntegrationTest extends BaseIntegrationTest {
@@ -165,6 +168,31 @@ public class BorrowControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.data.length()").value(0));
     }
 
+    @Test
+    void shouldPushAvailabilityChangesToStreamSubscribers() throws Exception {
+        String userToken = registerUserAndLogin();
+        String watcherToken = registerUserAndLogin();
+        Book book = saveAvailableBook("BORROW-8001", "Streamed Book", "Author S");
+
+        MvcResult stream = mockMvc.perform(get("/api/user/books/stream")
+                        .header("Authorization", "Bearer " + watcherToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/api/user/borrow/book/{bookId}", book.getId())
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+
+        // Events are written by the broadcaster's sender pool, so allow it a moment.
+        String body = "";
+        for (int attempt = 0; attempt < 50 && !body.contains("BORROW-8001"); attempt++) {
+            Thread.sleep(100);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("event:availability"));
+        assertTrue(body.contains("\"status\":\"BORROWED\""));
+    }
+
     @Test
     void shouldReturnBadRequestWhenUserTriesToBorrowSecondBookWithoutReturningFirst() throws Exception {
         String userToken = registerUserAndLogin();
@@ -178,7 +206,12 @@ public class BorrowControllerIntegrationTest extends BaseIntegrationTest {
         mockMvc.perform(post("/api/user/borrow/book/{bookId}", second.getId())
                         .header("Authorization", "Bearer " + userToken))
                 .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.success").value(false));
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("You already have a borrowed book. Please return it first."));
+
+        // The rejected borrow rolls back its claim on the second book.
+        assertEquals(BookStatus.AVAILABLE, bookRepository.findById(second.getId()).orElseThrow().getStatus());
+        assertEquals(1, borrowRecordRepository.count());
     }
 
     @Test
@@ -221,7 +254,10 @@ public class BorrowControllerIntegrationTest extends BaseIntegrationTest {
                         .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data.length()").value(1));
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].bookCode").value("BORROW-4001"))
+                .andExpect(jsonPath("$.data[0].userEmail").isNotEmpty())
+                .andExpect(jsonPath("$.data[0].user").doesNotExist());
     }
 
     @Test
@@ -0,0 +1,153 @@
+package com.exam.library_management.integration;
+
+import com.exam.library_management.dto.BorrowRecordResponse;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.BorrowRecord;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@ActiveProfiles("test")
+public class BorrowRecordRepositoryIntegrationTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+    private static final LocalDate END = LocalDate.of(2025, 3, 31);
+
+    @Container
+    public static final MySQLContainer<?> mysqlContainer =
+            new MySQLContainer<>("mysql:8.0")
+                    .withDatabaseName("testdb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @DynamicPropertySource
+    static void registerDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysqlContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", mysqlContainer::getUsername);
+        registry.add("spring.datasource.password", mysqlContainer::getPassword);
+    }
+
+    @Test
+    void shouldSummarizeOnlyActivityInsideTheRange() {
+        User both = userRepository.save(user("SUM1"));
+        User returnsOnly = userRepository.save(user("SUM2"));
+        User outside = userRepository.save(user("SUM3"));
+        Book book = bookRepository.save(book("SUM-1"));
+
+        // Borrowed and returned in March, twice.
+        loan(both, book, LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 9));
+        loan(both, book, LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 31));
+        // Borrowed in February, returned in March.
+        loan(returnsOnly, book, LocalDate.of(2025, 2, 20), LocalDate.of(2025, 3, 1));
+        // Nothing in March.
+        loan(outside, book, LocalDate.of(2025, 1, 5), LocalDate.of(2025, 2, 28));
+        loan(outside, book, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 3));
+
+        List<UserActivitySummary> summary = borrowRecordRepository.getUserActivitySummary(START, END);
+
+        assertEquals(2, summary.size());
+        assertEquals(both.getId(), summary.get(0).getUserId());
+        assertEquals(2, summary.get(0).getBorrowedCount());
+        assertEquals(2, summary.get(0).getReturnedCount());
+        assertEquals(returnsOnly.getEmail(), summary.get(1).getEmail());
+        assertEquals(0, summary.get(1).getBorrowedCount());
+        assertEquals(1, summary.get(1).getReturnedCount());
+    }
+
+    @Test
+    void shouldReturnEmptySummaryForQuietMonth() {
+        User user = userRepository.save(user("SUM4"));
+        Book book = bookRepository.save(book("SUM-2"));
+        loan(user, book, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 2));
+
+        assertTrue(borrowRecordRepository.getUserActivitySummary(START, END).isEmpty());
+    }
+
+    @Test
+    void shouldCountAndStreamWithoutLoadingEntities() {
+        User late = userRepository.save(user("SUM5"));
+        User onTime = userRepository.save(user("SUM6"));
+        Book lateBook = bookRepository.save(book("SUM-3"));
+        Book onTimeBook = bookRepository.save(book("SUM-4"));
+
+        loan(late, lateBook, LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 20));
+        loan(late, lateBook, LocalDate.of(2025, 3, 5), null);
+        loan(onTime, onTimeBook, LocalDate.of(2025, 3, 25), null);
+        // Due March 22, back in April: still overdue as of the end of March.
+        loan(late, lateBook, LocalDate.of(2025, 3, 8), LocalDate.of(2025, 4, 2));
+
+        assertEquals(4, borrowRecordRepository.countByBorrowDateBetween(START, END));
+        assertEquals(1, borrowRecordRepository.countByReturnDateBetween(START, END));
+        // Due March 17 (back March 20), March 19, April 8 and March 22.
+        assertEquals(2, borrowRecordRepository.countOverdueAsOf(END));
+
+        try (Stream<BorrowRecordResponse> overdue = borrowRecordRepository.streamOverdue(END)) {
+            List<BorrowRecordResponse> rows = overdue.toList();
+            assertEquals(2, rows.size());
+            assertEquals(late.getEmail(), rows.get(0).getUserEmail());
+            assertEquals(LocalDate.of(2025, 3, 5), rows.get(0).getBorrowDate());
+            assertEquals(LocalDate.of(2025, 3, 8), rows.get(1).getBorrowDate());
+            assertEquals("Title SUM-3", rows.get(1).getBookTitle());
+        }
+    }
+
+    private void loan(User user, Book book, LocalDate borrowed, LocalDate returned) {
+        BorrowRecord record = new BorrowRecord();
+        record.setUser(user);
+        record.setBook(book);
+        record.setBorrowDate(borrowed);
+        record.setDueDate(borrowed.plusDays(14));
+        record.setReturnDate(returned);
+        record.setLateFee(BigDecimal.ZERO);
+        borrowRecordRepository.save(record);
+    }
+
+    private static User user(String libraryId) {
+        User user = new User();
+        user.setLibraryId(libraryId);
+        user.setEmail(libraryId.toLowerCase() + "@test.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private static Book book(String code) {
+        Book book = new Book();
+        book.setBookCode(code);
+        book.setTitle("Title " + code);
+        book.setAuthor("Author");
+        book.setStatus(BookStatus.BORROWED);
+        return book;
+    }
+}
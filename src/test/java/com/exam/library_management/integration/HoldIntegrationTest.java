@@ -0,0 +1,115 @@
+package com.exam.library_management.integration;
+
+import com.exam.library_management.dto.HoldResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.service.BorrowService;
+import com.exam.library_management.service.HoldService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HoldIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void returnedBook_ShouldBeReservedForFirstWaiter_UntilTheyBorrowIt() {
+        Long bookId = saveBook("HOLD-0001");
+        User first = saveUser("first");
+        User second = saveUser("second");
+        User other = saveUser("other");
+
+        borrowService.borrowBook(first, bookId);
+        assertEquals(1, holdService.placeHold(second, bookId).getPosition());
+        assertEquals(2, holdService.placeHold(other, bookId).getPosition());
+
+        borrowService.returnBook(first);
+
+        assertEquals(BookStatus.RESERVED, bookRepository.findById(bookId).orElseThrow().getStatus());
+        List<HoldResponse> holds = holdService.getHolds(second);
+        assertEquals(HoldStatus.READY, holds.get(0).getStatus());
+        assertEquals(1, holdService.getHolds(other).get(0).getPosition());
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> borrowService.borrowBook(other, bookId));
+        assertEquals("This book is currently not available for borrowing", ex.getMessage());
+
+        borrowService.borrowBook(second, bookId);
+        assertEquals(BookStatus.BORROWED, bookRepository.findById(bookId).orElseThrow().getStatus());
+        assertEquals(List.of(), holdService.getHolds(second));
+    }
+
+    @Test
+    void placeHold_ShouldRejectDuplicateLiveHold_ButAllowOneAfterCancelling() {
+        Long bookId = saveBook("HOLD-0002");
+        borrowService.borrowBook(saveUser("holder"), bookId);
+        User waiter = saveUser("waiter");
+
+        HoldResponse hold = holdService.placeHold(waiter, bookId);
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> holdService.placeHold(waiter, bookId));
+        assertEquals("You already have a hold on this book", ex.getMessage());
+
+        holdService.cancelHold(waiter, hold.getId());
+        assertEquals(1, holdService.placeHold(waiter, bookId).getPosition());
+    }
+
+    @Test
+    void expireReadyHolds_ShouldReleaseBook_WhenNobodyElseWaits() {
+        Long bookId = saveBook("HOLD-0003");
+        User holder = saveUser("lapsed-holder");
+        User waiter = saveUser("lapsed-waiter");
+        borrowService.borrowBook(holder, bookId);
+        holdService.placeHold(waiter, bookId);
+        borrowService.returnBook(holder);
+
+        jdbcTemplate.update("UPDATE holds SET ready_until = '2000-01-01 00:00:00' WHERE status = 'READY'");
+        holdService.expireReadyHolds();
+
+        assertEquals(BookStatus.AVAILABLE, bookRepository.findById(bookId).orElseThrow().getStatus());
+        assertEquals(List.of(), holdService.getHolds(waiter));
+    }
+
+    private Long saveBook(String code) {
+        Book book = new Book();
+        book.setBookCode(code);
+        book.setTitle("Title " + code);
+        book.setAuthor("Author");
+        book.setStatus(BookStatus.AVAILABLE);
+        return bookRepository.save(book).getId();
+    }
+
+    private User saveUser(String name) {
+        User user = new User();
+        user.setLibraryId("HOLD-" + name);
+        user.setEmail(name + "@test.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,134 @@
+package com.exam.library_management.integration;
+
+import com.exam.library_management.dto.ActivityTotals;
+import com.exam.library_management.dto.BorrowBatchItem;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.service.BorrowBatchService;
+import com.exam.library_management.service.BorrowService;
+import com.exam.library_management.service.MonthlyActivityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MonthlyActivityIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BorrowBatchService borrowBatchService;
+
+    @Autowired
+    private MonthlyActivityService monthlyActivityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldCountBorrowsAndReturnsFromEveryWritePath() {
+        User reader = userRepository.save(user("ROLL1"));
+        User desk = userRepository.save(user("ROLL2"));
+        Book first = bookRepository.save(book("ROLL-1"));
+        Book second = bookRepository.save(book("ROLL-2"));
+
+        borrowService.borrowBook(reader, first.getId());
+        jdbcTemplate.update("UPDATE borrow_records SET due_date = ?", LocalDate.now().minusDays(2));
+        borrowService.returnBook(reader);
+        borrowService.borrowBook(reader, first.getId());
+        borrowBatchService.borrowBooks(List.of(new BorrowBatchItem(desk.getId(), second.getId())));
+        borrowBatchService.returnBooks(List.of(new BorrowBatchItem(desk.getId(), second.getId())));
+
+        YearMonth month = YearMonth.now();
+        ActivityTotals totals = monthlyActivityService.totals(month, month);
+        assertEquals(3, totals.getBorrowedCount());
+        assertEquals(2, totals.getReturnedCount());
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(totals.getLateFees()));
+
+        List<UserActivitySummary> users = monthlyActivityService.userActivity(month, month);
+        assertEquals(2, users.size());
+        assertEquals(reader.getEmail(), users.get(0).getEmail());
+        assertEquals(2, users.get(0).getBorrowedCount());
+        assertEquals(1, users.get(0).getReturnedCount());
+        assertEquals(1, users.get(1).getBorrowedCount());
+        assertEquals(1, users.get(1).getReturnedCount());
+    }
+
+    @Test
+    void rebuild_ShouldMatchWritePathAndFillMonthsBeforeTheRollup() {
+        User reader = userRepository.save(user("HIST1"));
+        Book book = bookRepository.save(book("HIST-1"));
+        borrowService.borrowBook(reader, book.getId());
+        borrowService.returnBook(reader);
+
+        // A loan from before the rollup existed: only borrow_records knows about it.
+        YearMonth past = YearMonth.now().minusMonths(14);
+        jdbcTemplate.update("INSERT INTO borrow_records (user_id, book_id, borrow_date, due_date, return_date, late_fee) "
+                        + "VALUES (?, ?, ?, ?, ?, 0)",
+                reader.getId(), book.getId(), past.atDay(3), past.atDay(17), past.atDay(10));
+        assertEquals(0, monthlyActivityService.totals(past, past).getBorrowedCount());
+
+        YearMonth month = YearMonth.now();
+        ActivityTotals live = monthlyActivityService.totals(month, month);
+        assertEquals(1, monthlyActivityService.rebuild(month));
+        ActivityTotals rebuilt = monthlyActivityService.totals(month, month);
+        assertEquals(live.getBorrowedCount(), rebuilt.getBorrowedCount());
+        assertEquals(live.getReturnedCount(), rebuilt.getReturnedCount());
+
+        assertEquals(1, monthlyActivityService.rebuild(past));
+        assertEquals(1, monthlyActivityService.totals(past, past).getReturnedCount());
+        assertEquals(2, monthlyActivityService.totals(past, month).getBorrowedCount());
+    }
+
+    @Test
+    void rebuild_ShouldRejectFutureMonth_WithoutTouchingTheRollup() {
+        User reader = userRepository.save(user("ROLL9"));
+        Book book = bookRepository.save(book("ROLL-9"));
+        YearMonth next = YearMonth.now().plusMonths(1);
+        jdbcTemplate.update("INSERT INTO monthly_activity (activity_month, user_id, book_id, borrowed_count, "
+                + "returned_count, late_fees) VALUES (?, ?, ?, 1, 0, 0)", next.atDay(1), reader.getId(), book.getId());
+
+        assertThrows(BadRequestException.class, () -> monthlyActivityService.rebuild(next));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM monthly_activity WHERE activity_month = ?", Integer.class, next.atDay(1)));
+    }
+
+    private static User user(String libraryId) {
+        User user = new User();
+        user.setLibraryId(libraryId);
+        user.setEmail(libraryId.toLowerCase() + "@test.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private static Book book(String code) {
+        Book book = new Book();
+        book.setBookCode(code);
+        book.setTitle("Title " + code);
+        book.setAuthor("Author");
+        book.setStatus(BookStatus.AVAILABLE);
+        return book;
+    }
+}
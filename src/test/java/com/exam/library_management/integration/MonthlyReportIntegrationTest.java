@@ -0,0 +1,163 @@
+package com.exam.library_management.integration;
+
+import com.exam.library_management.dto.MonthlyReport;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.Role;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.MonthlyReportSnapshotRepository;
+import com.exam.library_management.repository.UserRepository;
+import com.exam.library_management.service.MonthlyActivityService;
+import com.exam.library_management.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MonthlyReportIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private MonthlyActivityService monthlyActivityService;
+
+    @Autowired
+    private MonthlyReportSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void closedMonth_ShouldBeStoredOnce_AndDroppedByRebuild() {
+        User reader = userRepository.save(user("SNAP1"));
+        Book book = bookRepository.save(book("SNAP-1"));
+        YearMonth past = YearMonth.now().minusMonths(3);
+        // Due on the 19th but not back until the following month: overdue as of the end of the reported month.
+        loan(reader, book, past.atDay(5), past.plusMonths(1).atDay(10));
+        monthlyActivityService.rebuild(past);
+
+        MonthlyReport first = reportService.getReport(past);
+        assertEquals(1, first.getBooksBorrowed());
+        assertEquals(0, first.getBooksReturned());
+        assertEquals(1, first.getOverdueBooks());
+        assertEquals(reader.getEmail(), first.getUserActivity().get(0).getEmail());
+        assertTrue(snapshotRepository.findByReportMonth(past.atDay(1)).isPresent());
+
+        // Edited behind the application's back: the stored report does not notice.
+        loan(reader, book, past.atDay(25), past.atDay(26));
+        MonthlyReport second = reportService.getReport(past);
+        assertEquals(1, second.getBooksBorrowed());
+
+        monthlyActivityService.rebuild(past);
+        assertTrue(snapshotRepository.findByReportMonth(past.atDay(1)).isEmpty());
+        MonthlyReport rebuilt = reportService.getReport(past);
+        assertEquals(2, rebuilt.getBooksBorrowed());
+        assertEquals(2, rebuilt.getUserActivity().get(0).getBorrowedCount());
+    }
+
+    @Test
+    void closedMonth_ShouldListUsersFromLoans_WhenTheRollupHasNoRows() {
+        User reader = userRepository.save(user("SNAP3"));
+        Book book = bookRepository.save(book("SNAP-3"));
+        // Imported straight into borrow_records, from before the rollup existed.
+        YearMonth past = YearMonth.now().minusMonths(30);
+        loan(reader, book, past.atDay(2), past.atDay(9));
+
+        MonthlyReport report = reportService.getReport(past);
+
+        assertEquals(1, report.getBooksBorrowed());
+        assertEquals(1, report.getUserActivity().size());
+        assertEquals(1, report.getUserActivity().get(0).getBorrowedCount());
+        assertEquals(1, report.getUserActivity().get(0).getReturnedCount());
+        assertEquals(0, monthlyActivityService.totals(past, past).getBorrowedCount());
+    }
+
+    @Test
+    void justClosedMonth_ShouldStoreWhatTheLoansSay() {
+        User early = userRepository.save(user("SNAP4"));
+        User late = userRepository.save(user("SNAP5"));
+        Book first = bookRepository.save(book("SNAP-4"));
+        Book second = bookRepository.save(book("SNAP-5"));
+        YearMonth month = YearMonth.now().minusMonths(1);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        loan(early, first, month.atDay(3), month.atDay(10));
+        // Due on the 19th and still out.
+        loan(late, second, month.atDay(5), null);
+        // Not due until next month.
+        loan(early, first, month.atDay(20), null);
+        monthlyActivityService.rebuild(month);
+
+        MonthlyReport stored = reportService.getReport(month);
+
+        assertTrue(snapshotRepository.findByReportMonth(start).isPresent());
+        assertEquals(3, stored.getBooksBorrowed());
+        assertEquals(1, stored.getBooksReturned());
+        assertEquals(1, stored.getOverdueBooks());
+        assertEquals(borrowRecordRepository.countByBorrowDateBetween(start, end), stored.getBooksBorrowed());
+        assertEquals(borrowRecordRepository.countByReturnDateBetween(start, end), stored.getBooksReturned());
+        assertEquals(borrowRecordRepository.countOverdueAsOf(end), stored.getOverdueBooks());
+        assertEquals(lines(borrowRecordRepository.getUserActivitySummary(start, end)), lines(stored.getUserActivity()));
+    }
+
+    @Test
+    void currentMonth_ShouldBeComputedLive() {
+        User reader = userRepository.save(user("SNAP2"));
+        Book book = bookRepository.save(book("SNAP-2"));
+        YearMonth month = YearMonth.now();
+
+        assertEquals(0, reportService.getReport(month).getBooksBorrowed());
+        loan(reader, book, month.atDay(1), month.atDay(1));
+        assertEquals(1, reportService.getReport(month).getBooksBorrowed());
+        assertEquals(0, snapshotRepository.count());
+    }
+
+    private void loan(User user, Book book, LocalDate borrowed, LocalDate returned) {
+        jdbcTemplate.update("INSERT INTO borrow_records (user_id, book_id, borrow_date, due_date, return_date, late_fee) "
+                        + "VALUES (?, ?, ?, ?, ?, 0)",
+                user.getId(), book.getId(), borrowed, borrowed.plusDays(14), returned);
+    }
+
+    private static List<String> lines(List<UserActivitySummary> users) {
+        return users.stream()
+                .map(user -> user.getEmail() + ":" + user.getBorrowedCount() + ":" + user.getReturnedCount())
+                .toList();
+    }
+
+    private static User user(String libraryId) {
+        User user = new User();
+        user.setLibraryId(libraryId);
+        user.setEmail(libraryId.toLowerCase() + "@test.com");
+        user.setPassword("not-used");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private static Book book(String code) {
+        Book book = new Book();
+        book.setBookCode(code);
+        book.setTitle("Title " + code);
+        book.setAuthor("Author");
+        book.setStatus(BookStatus.AVAILABLE);
+        return book;
+    }
+}
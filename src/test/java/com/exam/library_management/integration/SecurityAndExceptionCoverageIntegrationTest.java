@@ -6,6 +6,8 @@ import com.exam.library_management.enums.Role;
 import com.exam.library_management.repository.UserRepository;
 import com.exam.library_management.security.CustomUserDetailsService;
 import com.exam.library_management.security.JwtUtil;
+import com.exam.library_management.security.LibraryUserDetails;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -14,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,11 +30,12 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -151,36 +155,33 @@ public class SecurityAndExceptionCoverageIntegrationTest extends BaseIntegration
     }
 
     @Test
-    void shouldReturnFalseWhenJwtSubjectDoesNotMatchLoadedUserEmail() {
+    void shouldNotMatchWhenJwtSubjectDiffersFromLoadedUserEmail() {
         User user = createUser();
         String token = tokenWithSubject(user.getLibraryId());
         UserDetails loaded = customUserDetailsService.loadUserByUsername(user.getLibraryId());
 
-        boolean valid = jwtUtil.validateToken(token, loaded);
+        String subject = jwtUtil.verify(token).getSubject();
 
-        assertFalse(valid);
+        assertNotEquals(loaded.getUsername(), subject);
     }
 
     @Test
-    void shouldReturnTrueWhenJwtSubjectMatchesAndNotExpired() {
+    void shouldMatchWhenJwtSubjectIsLoadedUserEmailAndNotExpired() {
         User user = createUser();
         String token = tokenWithSubject(user.getEmail());
         UserDetails loaded = customUserDetailsService.loadUserByUsername(user.getEmail());
 
-        boolean valid = jwtUtil.validateToken(token, loaded);
+        String subject = jwtUtil.verify(token).getSubject();
 
-        assertTrue(valid);
+        assertEquals(loaded.getUsername(), subject);
     }
 
     @Test
-    void shouldReturnFalseWhenJwtIsExpired() {
+    void shouldRejectExpiredJwt() {
         User user = createUser();
         String token = expiredTokenWithSubject(user.getEmail());
-        UserDetails loaded = customUserDetailsService.loadUserByUsername(user.getEmail());
-
-        boolean valid = jwtUtil.validateToken(token, loaded);
 
-        assertFalse(valid);
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
     }
 
     @Test
@@ -231,4 +232,27 @@ public class SecurityAndExceptionCoverageIntegrationTest extends BaseIntegration
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void shouldAuthenticateFromTokenClaimsWithoutLoadingTheUser() throws Exception {
+        // No such row exists: a lookup would fail, so a 200 proves the claims alone were used.
+        String token = jwtUtil.generateToken(new LibraryUserDetails(
+                999_999L, "ghost@test.com", "n/a", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        mockMvc.perform(get("/api/user/books")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldEnforceRoleClaimFromToken() throws Exception {
+        String token = jwtUtil.generateToken(new LibraryUserDetails(
+                999_999L, "ghost@test.com", "n/a", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        mockMvc.perform(get("/api/admin/borrow-records")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+    }
 }
@@ -0,0 +1,135 @@
+package com.exam.library_management.integration;
+
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.repository.BorrowRecordRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/*
+ * Full-history GROUP BY versus the range-pruned summary (the source of a stored monthly report's
+ * per-user lines) over a synthetic borrow_records table.
+ * Excluded from the normal test run; ./gradlew dbBenchmark -Pbenchmark.rows=10000000
+ * (the default size) takes several minutes just to load the data.
+ */
+@Tag("benchmark")
+public class UserActivitySummaryBenchmarkTest extends BaseIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserActivitySummaryBenchmarkTest.class);
+
+    private static final int USERS = 10_000;
+    private static final int BOOKS = 10_000;
+    private static final int SEQ_SIZE = 1_000_000;
+    private static final int HISTORY_DAYS = 5 * 365;
+    private static final LocalDate HISTORY_START = LocalDate.of(2021, 1, 1);
+    private static final int RUNS = 3;
+
+    // The summary query as it was before range pruning: every row, every time.
+    private static final String FULL_SCAN_SQL = """
+            SELECT u.id, u.email,
+                   SUM(CASE WHEN br.borrow_date BETWEEN ? AND ? THEN 1 ELSE 0 END) AS borrowed,
+                   SUM(CASE WHEN br.return_date BETWEEN ? AND ? THEN 1 ELSE 0 END) AS returned
+            FROM borrow_records br
+            JOIN users u ON u.id = br.user_id
+            GROUP BY u.id, u.email
+            ORDER BY u.id
+            """;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rangePrunedSummaryShouldMatchFullScan() {
+        long rows = Long.getLong("benchmark.rows", 10_000_000L);
+        load(rows);
+
+        LocalDate start = HISTORY_START.plusYears(4).withDayOfMonth(1);
+        LocalDate end = start.plusMonths(1).minusDays(1);
+
+        List<UserActivitySummary> expected = jdbcTemplate.query(FULL_SCAN_SQL,
+                        (rs, i) -> new UserActivitySummary(
+                                rs.getLong("id"), rs.getString("email"),
+                                rs.getLong("borrowed"), rs.getLong("returned")),
+                        start, end, start, end)
+                .stream()
+                .filter(s -> s.getBorrowedCount() > 0 || s.getReturnedCount() > 0)
+                .toList();
+        List<UserActivitySummary> actual = borrowRecordRepository.getUserActivitySummary(start, end);
+
+        assertFalse(actual.isEmpty());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUserId(), actual.get(i).getUserId());
+            assertEquals(expected.get(i).getBorrowedCount(), actual.get(i).getBorrowedCount());
+            assertEquals(expected.get(i).getReturnedCount(), actual.get(i).getReturnedCount());
+        }
+
+        long fullScan = bestOf(() -> jdbcTemplate.queryForList(FULL_SCAN_SQL, start, end, start, end));
+        long pruned = bestOf(() -> borrowRecordRepository.getUserActivitySummary(start, end));
+        log.info("User activity summary over {} rows: full scan {} ms, range pruned {} ms ({}x)",
+                rows, fullScan, pruned, String.format("%.1f", (double) fullScan / Math.max(pruned, 1)));
+    }
+
+    private void load(long rows) {
+        // A plain table, not TEMPORARY: the statements below may run on different pooled connections.
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_seq");
+        jdbcTemplate.execute("CREATE TABLE bench_seq (n INT PRIMARY KEY)");
+        jdbcTemplate.execute("""
+                INSERT /*+ SET_VAR(cte_max_recursion_depth = %d) */ INTO bench_seq (n)
+                WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < %d)
+                SELECT n FROM seq
+                """.formatted(SEQ_SIZE, SEQ_SIZE - 1));
+
+        jdbcTemplate.update("""
+                INSERT INTO users (library_id, email, password, role, created_at)
+                SELECT CONCAT('BENCH', n), CONCAT('bench', n, '@test.com'), 'not-used', 'USER', NOW()
+                FROM bench_seq WHERE n < ?
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO books (book_code, title, author, status, version)
+                SELECT CONCAT('BENCH-', n), CONCAT('Title ', n), 'Author', 'AVAILABLE', 0
+                FROM bench_seq WHERE n < ?
+                """, BOOKS);
+        long firstUser = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        long firstBook = jdbcTemplate.queryForObject("SELECT MIN(id) FROM books", Long.class);
+
+        // Every loan is closed: open loans are limited to one per user by the active loan key.
+        for (long offset = 0; offset < rows; offset += SEQ_SIZE) {
+            jdbcTemplate.update("""
+                    INSERT INTO borrow_records (user_id, book_id, borrow_date, due_date, return_date, late_fee)
+                    SELECT ? + MOD(k * 31, ?), ? + MOD(k * 17, ?), d, d + INTERVAL 14 DAY,
+                           d + INTERVAL MOD(k, 30) DAY, 0
+                    FROM (SELECT ? + n AS k, ? + INTERVAL MOD((? + n) * 7919, ?) DAY AS d
+                          FROM bench_seq WHERE n < ?) s
+                    """,
+                    firstUser, USERS, firstBook, BOOKS,
+                    offset, HISTORY_START, offset, HISTORY_DAYS, Math.min(SEQ_SIZE, rows - offset));
+        }
+        jdbcTemplate.execute("DROP TABLE bench_seq");
+        jdbcTemplate.execute("ANALYZE TABLE borrow_records");
+    }
+
+    private static long bestOf(Supplier<?> query) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            query.get();
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
+    }
+}
@@ -0,0 +1,87 @@
+package com.exam.library_management.security;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private PasswordEncoder delegate;
+    private MeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PasswordEncoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        LibraryProperties.PasswordHashing settings = new LibraryProperties.PasswordHashing();
+        settings.setWorkers(1);
+        settings.setQueueCapacity(1);
+        encoder = new BoundedPasswordEncoder(delegate, settings, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldRunOnHashingPool_AndRecordLatency() {
+        when(delegate.encode("secret")).thenAnswer(invocation -> Thread.currentThread().getName());
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+
+        assertTrue(encoder.encode("secret").startsWith("password-hash-"));
+        assertTrue(encoder.matches("secret", "hash"));
+
+        assertEquals(1, meterRegistry.get("library.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("library.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void matches_ShouldRejectWith503_WhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        while (meterRegistry.get("library.password.hash.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class, () -> encoder.matches("c", "hash"));
+
+        assertEquals(BoundedPasswordEncoder.BUSY_MESSAGE, ex.getMessage());
+        assertEquals(1.0, meterRegistry.get("library.password.hash.rejected").counter().count());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encode_ShouldRethrowDelegateFailureUnwrapped() {
+        when(delegate.encode(any())).thenThrow(new IllegalArgumentException("rawPassword cannot be null"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+
+        assertEquals("rawPassword cannot be null", ex.getMessage());
+    }
+}
@@ -1,26 +1,102 @@
 package com.exam.library_management.security;
 
 import com.exam.library_management.config.JwtProperties;
+import com.exam.library_management.enums.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class JwtUtilTest {
 
-    @Test
-    void validateToken_shouldReturnFalse_forMalformedToken() {
+    private static JwtUtil jwtUtil(long expirationMs) {
         JwtProperties properties = new JwtProperties();
         properties.setSecret("abcdefghijklmnopqrstuvwxyz123456");
-        properties.setExpiration(60_000L);
+        properties.setExpiration(expirationMs);
+        return new JwtUtil(properties);
+    }
+
+    @Test
+    void verify_shouldReject_malformedToken() {
+        JwtUtil jwtUtil = jwtUtil(60_000L);
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify("not-a-jwt"));
+    }
+
+    @Test
+    void verify_shouldReturnSubjectExpiryAndClaims() {
+        JwtUtil jwtUtil = jwtUtil(60_000L);
+        LibraryUserDetails user = new LibraryUserDetails(42L, "user@test.com", "ignored",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertEquals("user@test.com", token.getSubject());
+        assertEquals(42L, token.getUserId());
+        assertEquals(Role.ADMIN, token.getRole());
+        assertTrue(token.getExpiresAt().after(new Date()));
+    }
+
+    @Test
+    void verify_shouldLeaveUserIdEmpty_forLegacyToken() {
+        JwtUtil jwtUtil = jwtUtil(60_000L);
+        UserDetails user = User.withUsername("user@test.com")
+                .password("ignored")
+                .roles("USER")
+                .build();
+
+        VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertEquals("user@test.com", token.getSubject());
+        assertNull(token.getUserId());
+        assertEquals(Role.USER, token.getRole());
+        assertTrue(token.principal().isEmpty());
+    }
+
+    @Test
+    void principal_shouldRebuildUserFromClaims() {
+        JwtUtil jwtUtil = jwtUtil(60_000L);
+        LibraryUserDetails user = new LibraryUserDetails(42L, "user@test.com", "ignored",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        AuthenticatedUser principal = jwtUtil.verify(jwtUtil.generateToken(user)).principal().orElseThrow();
 
-        JwtUtil jwtUtil = new JwtUtil(properties);
+        assertEquals(42L, principal.getId());
+        assertEquals("user@test.com", principal.getName());
+        assertEquals(Role.USER, principal.getRole());
+        assertEquals("ROLE_USER", principal.getAuthorities().get(0).getAuthority());
+    }
+
+    @Test
+    void principal_shouldBeEmpty_forTokenWithoutUserIdClaim() {
+        JwtUtil jwtUtil = jwtUtil(60_000L);
         UserDetails user = User.withUsername("user@test.com")
                 .password("ignored")
                 .roles("USER")
                 .build();
 
-        assertFalse(jwtUtil.validateToken("not-a-jwt", user));
+        assertTrue(jwtUtil.verify(jwtUtil.generateToken(user)).principal().isEmpty());
+    }
+
+    @Test
+    void verify_shouldRejectExpiredAndTamperedTokens() {
+        LibraryUserDetails user = new LibraryUserDetails(42L, "user@test.com", "ignored",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        JwtUtil expired = jwtUtil(-1_000L);
+        String expiredToken = expired.generateToken(user);
+        assertThrows(ExpiredJwtException.class, () -> expired.verify(expiredToken));
+
+        JwtUtil jwtUtil = jwtUtil(60_000L);
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
     }
 }
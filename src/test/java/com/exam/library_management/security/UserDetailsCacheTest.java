@@ -0,0 +1,76 @@
+package com.exam.library_management.security;
+
+import com.exam.library_management.config.JwtProperties;
+import com.exam.library_management.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheTest {
+
+    private static final String EMAIL = "user@test.com";
+    private static final String LIBRARY_ID = "LIB42";
+
+    @Mock
+    private CustomUserDetailsService delegate;
+
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(delegate, new JwtProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldServeEmailAndLibraryIdFromOneLookup() {
+        when(delegate.loadUserByUsername(EMAIL)).thenReturn(user());
+
+        UserDetails byEmail = userDetailsCache.loadUserByUsername(EMAIL);
+        UserDetails byLibraryId = userDetailsCache.loadUserByUsername(LIBRARY_ID);
+
+        assertSame(byEmail, byLibraryId);
+        assertEquals(EMAIL, byEmail.getUsername());
+        assertEquals("", byEmail.getPassword());
+        assertEquals(42L, ((LibraryUserDetails) byEmail).getId());
+        verify(delegate, times(1)).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldNotCacheUnknownUser() {
+        when(delegate.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("User not found"));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.loadUserByUsername("ghost"));
+
+        verify(delegate, times(2)).loadUserByUsername("ghost");
+    }
+
+    @Test
+    void onUserChanged_ShouldDropEveryKeyOfThatUser() {
+        when(delegate.loadUserByUsername(anyString())).thenReturn(user());
+        userDetailsCache.loadUserByUsername("USER@test.com");
+
+        userDetailsCache.onUserChanged(new UserChangedEvent(EMAIL, LIBRARY_ID));
+        userDetailsCache.loadUserByUsername("USER@test.com");
+
+        verify(delegate, times(2)).loadUserByUsername("USER@test.com");
+    }
+
+    private static LibraryUserDetails user() {
+        return new LibraryUserDetails(42L, LIBRARY_ID, EMAIL, "$2a$10$hash",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,93 @@
+package com.exam.library_management.security;
+
+import com.exam.library_management.config.JwtProperties;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private JwtProperties properties;
+    private JwtUtil jwtUtil;
+    private MeterRegistry meterRegistry;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setSecret("abcdefghijklmnopqrstuvwxyz123456");
+        properties.setExpiration(60_000L);
+        jwtUtil = spy(new JwtUtil(properties));
+        meterRegistry = new SimpleMeterRegistry();
+        token = jwtUtil.generateToken(new LibraryUserDetails(42L, "user@test.com", "ignored",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @Test
+    void verify_ShouldCheckSignatureOnce_ForRepeatedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, properties, meterRegistry);
+
+        VerifiedToken first = cache.verify(token);
+        VerifiedToken second = cache.verify(token);
+
+        assertSame(first, second);
+        assertEquals(42L, second.getUserId());
+        verify(jwtUtil, times(1)).verify(token);
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void verify_ShouldNotCacheRejectedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, properties, meterRegistry);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+
+        verify(jwtUtil, times(2)).verify(tampered);
+        // The genuine token is a different key and still verifies on its own.
+        assertEquals("user@test.com", cache.verify(token).getSubject());
+    }
+
+    @Test
+    void verify_ShouldReverify_WhenTtlElapsed() {
+        properties.getTokenCache().setMaxTtl(Duration.ZERO);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, properties, meterRegistry);
+
+        cache.verify(token);
+        cache.verify(token);
+
+        verify(jwtUtil, times(2)).verify(token);
+    }
+
+    @Test
+    void verify_ShouldDelegateEveryTime_WhenDisabled() {
+        properties.getTokenCache().setEnabled(false);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, properties, meterRegistry);
+
+        cache.verify(token);
+        cache.verify(token);
+
+        verify(jwtUtil, times(2)).verify(anyString());
+        assertNull(meterRegistry.find("cache.gets").meter());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", VerifiedTokenCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -3,7 +3,10 @@ package com.exam.library_management.service;
 import com.exam.library_management.dto.LoginRequest;
 import com.exam.library_management.dto.LoginResponse;
 import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.TooManyRequestsException;
 import com.exam.library_management.security.JwtUtil;
+import com.exam.library_management.security.LibraryUserDetails;
+import com.exam.library_management.security.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,13 +20,19 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.List;
+
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceTest {
 
+    private static final String CLIENT_ADDRESS = "10.0.0.7";
+
     @Mock
     private AuthenticationManager authenticationManager;
 
@@ -33,6 +42,12 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
     @InjectMocks
     private AuthService authService;
 
@@ -66,7 +81,7 @@ class AuthServiceTest {
                 .thenReturn("mocked-jwt-token");
 
         // Call service
-        LoginResponse response = authService.login(loginRequest);
+        LoginResponse response = authService.login(loginRequest, CLIENT_ADDRESS);
 
         // Assertions
         assertNotNull(response);
@@ -87,6 +102,41 @@ class AuthServiceTest {
 
         verify(jwtUtil, times(1))
                 .generateToken(userDetails);
+
+        verify(loginThrottle).acquire("test@library.com", CLIENT_ADDRESS);
+        verify(loginThrottle).reset("test@library.com");
+    }
+
+    @Test
+    void login_byLibraryId_shouldThrottleAndResetTheAccountEmail() {
+
+        loginRequest.setUsername("LIB-0042");
+        UserDetails account = new LibraryUserDetails(
+                42L, "LIB-0042", "test@library.com", "", List.of());
+        when(userDetailsCache.loadUserByUsername("LIB-0042")).thenReturn(account);
+        when(userDetailsService.loadUserByUsername("LIB-0042")).thenReturn(account);
+        when(jwtUtil.generateToken(account)).thenReturn("mocked-jwt-token");
+
+        authService.login(loginRequest, CLIENT_ADDRESS);
+
+        // Same key as a login by email, so the two identifiers share one limit.
+        verify(loginThrottle).acquire("test@library.com", CLIENT_ADDRESS);
+        verify(loginThrottle).reset("test@library.com");
+    }
+
+    @Test
+    void login_unknownUsername_shouldThrottleTheNameAsTyped() {
+
+        loginRequest.setUsername("nobody@library.com");
+        when(userDetailsCache.loadUserByUsername("nobody@library.com"))
+                .thenThrow(new UsernameNotFoundException("User not found"));
+        doThrow(new BadCredentialsException("Bad credentials"))
+                .when(authenticationManager)
+                .authenticate(any());
+
+        assertThrows(BadRequestException.class, () -> authService.login(loginRequest, CLIENT_ADDRESS));
+
+        verify(loginThrottle).acquire("nobody@library.com", CLIENT_ADDRESS);
     }
 
     // =====================================================
@@ -102,7 +152,7 @@ class AuthServiceTest {
 
         BadRequestException exception = assertThrows(
                 BadRequestException.class,
-                () -> authService.login(loginRequest)
+                () -> authService.login(loginRequest, CLIENT_ADDRESS)
         );
 
         assertEquals("Invalid username or password", exception.getMessage());
@@ -124,7 +174,7 @@ class AuthServiceTest {
 
         BadRequestException exception = assertThrows(
                 BadRequestException.class,
-                () -> authService.login(loginRequest)
+                () -> authService.login(loginRequest, CLIENT_ADDRESS)
         );
 
         assertEquals("Invalid username or password", exception.getMessage());
@@ -134,4 +184,39 @@ class AuthServiceTest {
         verify(jwtUtil, never())
                 .generateToken(any());
     }
+
+    // =====================================================
+    // FAILURE CASE - THROTTLED
+    // =====================================================
+    @Test
+    void login_throttled_shouldRejectBeforeAuthentication() {
+
+        doThrow(new TooManyRequestsException("Too many login attempts. Please try again later.", Duration.ofMinutes(1)))
+                .when(loginThrottle)
+                .acquire("test@library.com", CLIENT_ADDRESS);
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> authService.login(loginRequest, CLIENT_ADDRESS)
+        );
+
+        verifyNoInteractions(authenticationManager);
+        verify(loginThrottle, never()).reset(any());
+    }
+
+    @Test
+    void login_throttledAddress_shouldRejectBeforeResolvingTheAccount() {
+
+        doThrow(new TooManyRequestsException("Too many login attempts. Please try again later.", Duration.ofMinutes(1)))
+                .when(loginThrottle)
+                .checkAddress(CLIENT_ADDRESS);
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> authService.login(loginRequest, CLIENT_ADDRESS)
+        );
+
+        verifyNoInteractions(userDetailsCache, authenticationManager);
+        verify(loginThrottle, never()).acquire(any(), any());
+    }
 }
@@ -0,0 +1,277 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookAvailabilityBroadcasterTest {
+
+    private LibraryProperties libraryProperties;
+    private QueuedExecutor senders;
+    private ThreadPoolExecutor writers;
+    private BookAvailabilityBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        libraryProperties = new LibraryProperties();
+        senders = new QueuedExecutor();
+        writers = BookAvailabilityBroadcaster.newWriterPool(4);
+        broadcaster = new BookAvailabilityBroadcaster(libraryProperties, senders, writers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writers.shutdownNow();
+    }
+
+    @Test
+    void onBookChanged_ShouldOnlyQueueWork_AndCoalescePerBook() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter);
+
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED), BookStatus.AVAILABLE));
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.AVAILABLE), BookStatus.BORROWED));
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(2L, BookStatus.BORROWED), BookStatus.AVAILABLE));
+
+        // Nothing is written on the publishing thread, and one drain covers all three changes.
+        assertTrue(emitter.books.isEmpty());
+        assertEquals(1, senders.tasks.size());
+
+        senders.runAll();
+
+        assertEquals(2, emitter.books.size());
+        BookResponse first = emitter.books.stream().filter(book -> book.getId() == 1L).findFirst().orElseThrow();
+        assertEquals(BookStatus.AVAILABLE, first.getStatus());
+    }
+
+    @Test
+    void onBookChanged_ShouldKeepTheNewerVersion_WhenEventsArriveOutOfOrder() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter);
+
+        // The return committed second, but its listener ran first.
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.AVAILABLE, 2), BookStatus.BORROWED));
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED, 1), BookStatus.AVAILABLE));
+        senders.runAll();
+
+        assertEquals(1, emitter.books.size());
+        assertEquals(BookStatus.AVAILABLE, emitter.books.get(0).getStatus());
+    }
+
+    @Test
+    void drain_ShouldSkipEventsOlderThanTheLastSent() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter);
+
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.AVAILABLE, 2), BookStatus.BORROWED));
+        senders.runAll();
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED, 1), BookStatus.AVAILABLE));
+        senders.runAll();
+
+        assertEquals(1, emitter.books.size());
+        assertEquals(BookStatus.AVAILABLE, emitter.books.get(0).getStatus());
+    }
+
+    @Test
+    void onBookChanged_ShouldIgnoreChangesThatKeepStatus() {
+        broadcaster.register(new RecordingEmitter());
+
+        broadcaster.onBookChanged(BookChangedEvent.created(book(1L, BookStatus.AVAILABLE)));
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.AVAILABLE), BookStatus.AVAILABLE));
+
+        assertTrue(senders.tasks.isEmpty());
+    }
+
+    @Test
+    void onBookChanged_ShouldReplaceBacklogWithResync_ForSlowSubscriber() {
+        libraryProperties.getAvailabilityStream().setMaxPending(2);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter);
+
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.onBookChanged(BookChangedEvent.updated(book(id, BookStatus.BORROWED), BookStatus.AVAILABLE));
+        }
+        senders.runAll();
+
+        assertEquals(List.of(BookAvailabilityBroadcaster.RESYNC_EVENT), emitter.eventNames);
+        assertTrue(emitter.books.isEmpty());
+    }
+
+    @Test
+    void drain_ShouldDropSubscriber_WhenSendFails() {
+        broadcaster.register(new FailingEmitter());
+        RecordingEmitter healthy = new RecordingEmitter();
+        broadcaster.register(healthy);
+
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED), BookStatus.AVAILABLE));
+        senders.runAll();
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(1, healthy.books.size());
+    }
+
+    @Test
+    void drain_ShouldDropSubscriber_AndFreeWorker_WhenWriteStalls() throws Exception {
+        libraryProperties.getAvailabilityStream().setWriteTimeout(Duration.ofMillis(50));
+        StalledEmitter stalled = new StalledEmitter();
+        broadcaster.register(stalled);
+        RecordingEmitter healthy = new RecordingEmitter();
+        broadcaster.register(healthy);
+
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED), BookStatus.AVAILABLE));
+        // Returns even though the stalled socket never accepts its write.
+        senders.runAll();
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(1, healthy.books.size());
+
+        // Once the container gives up on the socket, the emitter is closed.
+        stalled.release.countDown();
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void drain_ShouldKeepWriterThreadsBounded_WhenMoreSubscribersStallThanThePoolHolds() throws Exception {
+        libraryProperties.getAvailabilityStream().setWriteTimeout(Duration.ofMillis(50));
+        List<StalledEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            StalledEmitter emitter = new StalledEmitter();
+            stalled.add(emitter);
+            broadcaster.register(emitter);
+        }
+
+        broadcaster.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED), BookStatus.AVAILABLE));
+        senders.runAll();
+
+        // Four writers stuck on sockets, the other six refused outright: no extra threads.
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(4, writers.getLargestPoolSize());
+        assertEquals(4, writers.getActiveCount());
+
+        stalled.forEach(emitter -> emitter.release.countDown());
+        for (StalledEmitter emitter : stalled) {
+            assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private Book book(Long id, BookStatus status) {
+        return book(id, status, 0);
+    }
+
+    private Book book(Long id, BookStatus status, long version) {
+        Book book = new Book();
+        book.setId(id);
+        book.setBookCode("BK-" + id);
+        book.setTitle("Title " + id);
+        book.setAuthor("Author " + id);
+        book.setStatus(status);
+        book.setVersion(version);
+        return book;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> eventNames = new ArrayList<>();
+        private final List<BookResponse> books = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                Object data = part.getData();
+                if (data instanceof BookResponse book) {
+                    books.add(book);
+                } else if (data instanceof String text && text.startsWith("event:")) {
+                    eventNames.add(text.substring("event:".length()).split("\n")[0]);
+                }
+            }
+        }
+    }
+
+    private static class FailingEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+
+    /* A socket that stops accepting data: send blocks until released, then fails. */
+    private static class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Write timed out");
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            completed.countDown();
+        }
+    }
+
+    /* Runs submitted drains only when asked, so tests control what a "slow" sender sees. */
+    private static class QueuedExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
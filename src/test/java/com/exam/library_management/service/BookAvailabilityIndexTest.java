@@ -0,0 +1,126 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookAvailabilityIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(PageRequest.class)))
+                .thenReturn(List.of(
+                        book(1L, BookStatus.AVAILABLE),
+                        book(2L, BookStatus.BORROWED),
+                        book(5L, BookStatus.AVAILABLE)));
+
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldLoadOnlyAvailableBooks_InIdOrder() {
+        List<BookResponse> result = index.availableBooks();
+
+        assertEquals(List.of(1L, 5L), result.stream().map(BookResponse::getId).toList());
+    }
+
+    @Test
+    void onBookChanged_ShouldTrackBorrowAndReturnFlips() {
+        Book borrowed = book(1L, BookStatus.BORROWED);
+        borrowed.setVersion(1);
+        index.onBookChanged(BookChangedEvent.updated(borrowed, BookStatus.AVAILABLE));
+
+        assertFalse(availableIds().contains(1L));
+
+        Book returned = book(2L, BookStatus.AVAILABLE);
+        returned.setVersion(1);
+        index.onBookChanged(BookChangedEvent.updated(returned, BookStatus.BORROWED));
+
+        assertEquals(List.of(2L, 5L),
+                index.availableBooks().stream().map(BookResponse::getId).toList());
+    }
+
+    @Test
+    void onBookChanged_ShouldGrowForNewIds_AndDropDeletedBooks() {
+        index.onBookChanged(BookChangedEvent.created(book(5_000L, BookStatus.AVAILABLE)));
+        index.onBookChanged(BookChangedEvent.deleted(book(5L, BookStatus.AVAILABLE)));
+
+        assertEquals(List.of(1L, 5_000L),
+                index.availableBooks().stream().map(BookResponse::getId).toList());
+    }
+
+    @Test
+    void onBookChanged_ShouldIgnoreEventsOlderThanTheAppliedVersion() {
+        Book borrowed = book(1L, BookStatus.BORROWED);
+        borrowed.setVersion(1);
+        Book returned = book(1L, BookStatus.AVAILABLE);
+        returned.setVersion(2);
+
+        // The return committed second, but its listener ran first.
+        index.onBookChanged(BookChangedEvent.updated(returned, BookStatus.BORROWED));
+        index.onBookChanged(BookChangedEvent.updated(borrowed, BookStatus.AVAILABLE));
+
+        assertTrue(availableIds().contains(1L));
+    }
+
+    @Test
+    void onBookChanged_ShouldNotResurrectDeletedBooks_OnLateUpdates() {
+        Book deleted = book(5L, BookStatus.AVAILABLE);
+        deleted.setVersion(3);
+        Book stale = book(5L, BookStatus.AVAILABLE);
+        stale.setVersion(2);
+
+        index.onBookChanged(BookChangedEvent.deleted(deleted));
+        index.onBookChanged(BookChangedEvent.updated(stale, BookStatus.BORROWED));
+
+        assertFalse(availableIds().contains(5L));
+    }
+
+    @Test
+    void availableBooksAfter_ShouldSeekPastGivenId_AndRespectLimit() {
+        index.onBookChanged(BookChangedEvent.created(book(7L, BookStatus.AVAILABLE)));
+
+        List<BookResponse> page = index.availableBooksAfter(1L, 1);
+
+        assertEquals(1, page.size());
+        assertEquals(5L, page.get(0).getId());
+        assertTrue(index.availableBooksAfter(1_000_000L, 10).isEmpty());
+    }
+
+    private List<Long> availableIds() {
+        return index.availableBooks().stream().map(BookResponse::getId).toList();
+    }
+
+    private Book book(Long id, BookStatus status) {
+        Book book = new Book();
+        book.setId(id);
+        book.setBookCode("BK-" + id);
+        book.setTitle("Title " + id);
+        book.setAuthor("Author " + id);
+        book.setStatus(status);
+        return book;
+    }
+}
@@ -0,0 +1,81 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.enums.BookFileFormat;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private BookExportService bookExportService;
+
+    @Test
+    void exportBooks_ShouldWriteCsvRows_FromProjectionStream() throws Exception {
+        BookResponse plain = book(1L, "BK-1", "Clean Code", "Robert C. Martin");
+        BookResponse quoted = book(2L, "BK-2", "Patterns, \"Practices\"", "Someone");
+        when(bookRepository.streamAllResponses()).thenReturn(Stream.of(plain, quoted));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = bookExportService.exportBooks(BookFileFormat.CSV, out);
+
+        assertEquals(2, count);
+        assertEquals("""
+                id,bookCode,title,author,status
+                1,BK-1,Clean Code,Robert C. Martin,AVAILABLE
+                2,BK-2,"Patterns, ""Practices\""",Someone,AVAILABLE
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportBooks_ShouldWriteOneJsonObjectPerLine_AndCloseStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookRepository.streamAllResponses()).thenReturn(
+                Stream.of(book(7L, "BK-7", "Refactoring", "Martin Fowler")).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookExportService.exportBooks(BookFileFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertEquals("BK-7", objectMapper.readTree(lines[0]).get("bookCode").asText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void resolveFormat_ShouldDefaultToNdjson_AndRejectUnknownFormats() {
+        assertEquals(BookFileFormat.NDJSON, bookExportService.resolveFormat(null));
+        assertEquals(BookFileFormat.CSV, bookExportService.resolveFormat("CSV"));
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> bookExportService.resolveFormat("xml"));
+        assertEquals("format must be csv or ndjson", ex.getMessage());
+    }
+
+    private BookResponse book(Long id, String code, String title, String author) {
+        return new BookResponse(id, code, title, author, BookStatus.AVAILABLE);
+    }
+}
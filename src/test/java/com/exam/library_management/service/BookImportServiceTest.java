@@ -0,0 +1,221 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookImportError;
+import com.exam.library_management.dto.BookImportResult;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookFileFormat;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        LibraryProperties properties = new LibraryProperties();
+        properties.getCatalog().setImportBatchSize(2);
+
+        bookImportService = new BookImportService(
+                jdbcTemplate,
+                transactionTemplate,
+                bookRepository,
+                properties,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                eventPublisher);
+
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> callback = invocation.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        lenient().when(bookRepository.findByBookCodeIn(any()))
+                .thenAnswer(invocation -> {
+                    Collection<String> codes = invocation.getArgument(0);
+                    return codes.stream().map(this::book).toList();
+                });
+    }
+
+    // =====================================================
+    // CSV
+    // =====================================================
+
+    @Test
+    void importBooks_ShouldInsertValidCsvRows_InBatches() throws Exception {
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(this::allInserted);
+
+        String csv = """
+                bookCode,title,author
+                BK-1,Clean Code,Robert C. Martin
+                BK-2,"Patterns, Principles",Someone
+
+                BK-3,"The ""Pragmatic"" Programmer",Andrew Hunt
+                """;
+
+        BookImportResult result = bookImportService.importBooks(new StringReader(csv), BookFileFormat.CSV);
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(eventPublisher, times(3)).publishEvent(any(BookChangedEvent.class));
+
+        ArgumentCaptor<SqlParameterSource[]> batches = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        SqlParameterSource[] secondBatch = batches.getAllValues().get(1);
+        assertEquals("The \"Pragmatic\" Programmer", secondBatch[0].getValue("title"));
+        assertEquals("Patterns, Principles", batches.getAllValues().get(0)[1].getValue("title"));
+    }
+
+    @Test
+    void importBooks_ShouldReportInvalidAndDuplicateRows_WithoutAbortingBatch() throws Exception {
+        // First batch finds BK-9 stored (in another case); the second sees BK-1 from the first.
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of("bk-9"), List.of("BK-1"));
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(this::allInserted);
+
+        String csv = """
+                BK-1,Clean Code,Robert C. Martin
+                BK-2,,Nobody
+                BK-9,Already Stored,Someone
+                BK-1,Same Code Again,Someone
+                only,two
+                """;
+
+        BookImportResult result = bookImportService.importBooks(new StringReader(csv), BookFileFormat.CSV);
+
+        assertEquals(1, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L),
+                result.getErrors().stream().map(BookImportError::getLine).sorted().toList());
+        assertEquals("title is required", errorAt(result, 2).getMessage());
+        assertEquals("Book with this code already exists", errorAt(result, 3).getMessage());
+        assertEquals("Book with this code already exists", errorAt(result, 4).getMessage());
+        assertEquals("Expected 3 columns: bookCode,title,author", errorAt(result, 5).getMessage());
+        verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void importBooks_ShouldReportDuplicate_WhenInsertIsIgnored() throws Exception {
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());
+        // Rewritten batches report SUCCESS_NO_INFO whether or not IGNORE skipped the row.
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        // A concurrent writer took BK-2 between the existence check and the insert.
+        when(bookRepository.findByBookCodeIn(List.of("BK-1", "BK-2"))).thenReturn(List.of(book("BK-1")));
+
+        BookImportResult result = bookImportService.importBooks(
+                new StringReader("BK-1,A,B\nBK-2,C,D\n"), BookFileFormat.CSV);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("BK-2", result.getErrors().get(0).getBookCode());
+
+        ArgumentCaptor<BookChangedEvent> event = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("BK-1", event.getValue().getBook().getBookCode());
+    }
+
+    // =====================================================
+    // NDJSON
+    // =====================================================
+
+    @Test
+    void importBooks_ShouldParseNdjson_AndReportMalformedLines() throws Exception {
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(this::allInserted);
+
+        String ndjson = """
+                {"bookCode":"BK-1","title":"Refactoring","author":"Martin Fowler"}
+                {"bookCode":"BK-2","title":
+                {"bookCode":"BK-3","title":"Domain-Driven Design","author":"Eric Evans"}
+                """;
+
+        BookImportResult result = bookImportService.importBooks(new StringReader(ndjson), BookFileFormat.NDJSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("Malformed JSON", errorAt(result, 2).getMessage());
+    }
+
+    @Test
+    void importBooks_ShouldNotTouchDatabase_WhenNoRowIsValid() throws Exception {
+        BookImportResult result = bookImportService.importBooks(
+                new StringReader("{}\n"), BookFileFormat.NDJSON);
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("author is required; bookCode is required; title is required",
+                result.getErrors().get(0).getMessage());
+        verifyNoInteractions(jdbcTemplate, transactionTemplate, eventPublisher);
+    }
+
+    private int[] allInserted(InvocationOnMock invocation) {
+        SqlParameterSource[] rows = invocation.getArgument(1);
+        int[] counts = new int[rows.length];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+
+    private BookImportError errorAt(BookImportResult result, long line) {
+        return result.getErrors().stream()
+                .filter(error -> error.getLine() == line)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Book book(String bookCode) {
+        Book book = new Book();
+        book.setId((long) bookCode.hashCode());
+        book.setBookCode(bookCode);
+        book.setTitle("Title");
+        book.setAuthor("Author");
+        book.setStatus(BookStatus.AVAILABLE);
+        return book;
+    }
+}
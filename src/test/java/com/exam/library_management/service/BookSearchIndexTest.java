@@ -0,0 +1,148 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.dto.BookSearchResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(PageRequest.class)))
+                .thenReturn(List.of(
+                        book(1L, "Clean Code", "Robert C. Martin"),
+                        book(2L, "The Clean Coder", "Robert C. Martin"),
+                        book(3L, "Refactoring", "Martin Fowler"),
+                        book(4L, "Gödel, Escher, Bach", "Douglas Hofstadter")));
+
+        index.rebuild();
+    }
+
+    @Test
+    void search_ShouldRequireEveryTokenToMatch() {
+        BookSearchResponse result = index.search("martin refactoring", 0, 10);
+
+        assertEquals(1, result.getTotal());
+        assertEquals(3L, result.getItems().get(0).getId());
+    }
+
+    @Test
+    void search_ShouldRankExactTitleHitsAbovePrefixAndAuthorHits() {
+        BookSearchResponse result = index.search("clean code", 0, 10);
+
+        assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    void search_ShouldMatchPrefixes_CaseAndAccentInsensitively() {
+        assertEquals(List.of(4L), ids(index.search("GODEL esch", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("fowl", 0, 10)));
+    }
+
+    @Test
+    void search_ShouldPaginateRankedResults() {
+        BookSearchResponse firstPage = index.search("martin", 0, 2);
+        BookSearchResponse secondPage = index.search("martin", 1, 2);
+
+        assertEquals(3, firstPage.getTotal());
+        assertEquals(2, firstPage.getItems().size());
+        assertEquals(1, secondPage.getItems().size());
+        assertTrue(index.search("martin", 5, 2).getItems().isEmpty());
+    }
+
+    @Test
+    void onBookChanged_ShouldReindexUpdatedTitles_AndDropDeletedBooks() {
+        Book renamed = book(3L, "Refactoring Databases", "Scott Ambler");
+        renamed.setVersion(1);
+        index.onBookChanged(BookChangedEvent.updated(renamed, BookStatus.AVAILABLE));
+        index.onBookChanged(BookChangedEvent.deleted(book(1L, "Clean Code", "Robert C. Martin")));
+
+        assertTrue(index.search("fowler", 0, 10).getItems().isEmpty());
+        assertEquals(List.of(3L), ids(index.search("databases", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("clean", 0, 10)));
+    }
+
+    @Test
+    void onBookChanged_ShouldExposeLatestStatus_ForStatusOnlyChanges() {
+        Book borrowed = book(3L, "Refactoring", "Martin Fowler");
+        borrowed.setStatus(BookStatus.BORROWED);
+        borrowed.setVersion(1);
+        index.onBookChanged(BookChangedEvent.updated(borrowed, BookStatus.AVAILABLE));
+
+        BookResponse hit = index.search("refactoring", 0, 10).getItems().get(0);
+        assertEquals(BookStatus.BORROWED, hit.getStatus());
+    }
+
+    @Test
+    void onBookChanged_ShouldIgnoreEventsOlderThanTheAppliedVersion() {
+        Book renamed = book(3L, "Refactoring Databases", "Scott Ambler");
+        renamed.setVersion(2);
+        Book borrowed = book(3L, "Refactoring", "Martin Fowler");
+        borrowed.setStatus(BookStatus.BORROWED);
+        borrowed.setVersion(1);
+
+        // Listeners of two commits on one book ran in the opposite order.
+        index.onBookChanged(BookChangedEvent.updated(renamed, BookStatus.AVAILABLE));
+        index.onBookChanged(BookChangedEvent.updated(borrowed, BookStatus.AVAILABLE));
+
+        assertEquals(List.of(3L), ids(index.search("databases", 0, 10)));
+        assertTrue(index.search("fowler", 0, 10).getItems().isEmpty());
+    }
+
+    @Test
+    void onBookChanged_ShouldNotResurrectDeletedBooks_OnLateUpdates() {
+        Book borrowed = book(1L, "Clean Code", "Robert C. Martin");
+        borrowed.setStatus(BookStatus.BORROWED);
+        borrowed.setVersion(1);
+        Book deleted = book(1L, "Clean Code", "Robert C. Martin");
+        deleted.setVersion(1);
+
+        index.onBookChanged(BookChangedEvent.deleted(deleted));
+        index.onBookChanged(BookChangedEvent.updated(borrowed, BookStatus.AVAILABLE));
+
+        assertEquals(List.of(2L), ids(index.search("clean", 0, 10)));
+    }
+
+    @Test
+    void search_ShouldReturnEmpty_ForPunctuationOnlyQuery() {
+        assertEquals(0, index.search("!!!", 0, 10).getTotal());
+    }
+
+    private List<Long> ids(BookSearchResponse response) {
+        return response.getItems().stream().map(BookResponse::getId).toList();
+    }
+
+    private Book book(Long id, String title, String author) {
+        Book book = new Book();
+        book.setId(id);
+        book.setBookCode("BK-" + id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setStatus(BookStatus.AVAILABLE);
+        return book;
+    }
+}
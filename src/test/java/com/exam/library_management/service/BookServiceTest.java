@@ -177,17 +177,27 @@
 
 package com.exam.library_management.service;
 
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookChangesResponse;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.dto.BookSearchResponse;
+import com.exam.library_management.dto.CursorPage;
 import com.exam.library_management.entity.Book;
 import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
 import com.exam.library_management.exception.BadRequestException;
 import com.exam.library_management.exception.ResourceNotFoundException;
 import com.exam.library_management.repository.BookRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -203,6 +213,21 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Spy
+    private LibraryProperties libraryProperties = new LibraryProperties();
+
+    @Mock
+    private BookAvailabilityIndex bookAvailabilityIndex;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookService bookService;
 
@@ -221,6 +246,7 @@ class BookServiceTest {
 
         assertEquals(BookStatus.AVAILABLE, book.getStatus());
         verify(bookRepository).save(book);
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
@@ -234,6 +260,7 @@ class BookServiceTest {
                 () -> bookService.addBook(book));
 
         assertEquals("Book with this code already exists", exception.getMessage());
+        verifyNoInteractions(eventPublisher);
     }
 
     /* ==========================
@@ -253,13 +280,19 @@ class BookServiceTest {
         updated.setAuthor("NewAuthor");
         updated.setStatus(BookStatus.BORROWED);
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
 
         Book result = bookService.updateBook(1L, updated);
 
         assertEquals("New", result.getTitle());
         assertEquals("NewAuthor", result.getAuthor());
         assertEquals(BookStatus.BORROWED, result.getStatus());
+
+        ArgumentCaptor<BookChangedEvent> eventCaptor = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(BookStatus.AVAILABLE, eventCaptor.getValue().getPreviousStatus());
+        assertTrue(eventCaptor.getValue().isStatusChange());
+        assertEquals(1L, eventCaptor.getValue().getVersion());
     }
 
     @Test
@@ -273,7 +306,7 @@ class BookServiceTest {
         Book updated = new Book();
         updated.setTitle("UpdatedTitle");
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
 
         Book result = bookService.updateBook(1L, updated);
 
@@ -292,18 +325,19 @@ class BookServiceTest {
 
         Book updated = new Book(); // all null
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
 
         Book result = bookService.updateBook(1L, updated);
 
         assertEquals("Old", result.getTitle());
         assertEquals("OldAuthor", result.getAuthor());
         assertEquals(BookStatus.AVAILABLE, result.getStatus());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void updateBook_ShouldThrowException_WhenBookNotFound() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.lockById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception =
                 assertThrows(ResourceNotFoundException.class,
@@ -321,16 +355,20 @@ class BookServiceTest {
     void deleteBook_ShouldDelete_WhenBookExists() {
         Book existing = new Book();
         existing.setId(1L);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
 
         bookService.deleteBook(1L);
 
         verify(bookRepository).delete(existing);
+
+        ArgumentCaptor<BookChangedEvent> eventCaptor = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(BookChangedEvent.Type.DELETED, eventCaptor.getValue().getType());
     }
 
     @Test
     void deleteBook_ShouldThrowException_WhenNotFound() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.lockById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
                 () -> bookService.deleteBook(1L));
@@ -340,7 +378,7 @@ class BookServiceTest {
     void deleteBook_ShouldThrowBadRequest_WhenLinkedBorrowRecordsExist() {
         Book existing = new Book();
         existing.setId(1L);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
         doThrow(DataIntegrityViolationException.class)
                 .when(bookRepository).delete(existing);
 
@@ -362,12 +400,15 @@ class BookServiceTest {
 
     @Test
     void getAllBooks_ShouldReturnList() {
-        List<Book> books = Arrays.asList(new Book(), new Book());
-        when(bookRepository.findAll()).thenReturn(books);
+        List<BookResponse> books = Arrays.asList(
+                BookResponse.from(bookWithId(1L)),
+                BookResponse.from(bookWithId(2L)));
+        when(bookRepository.findAllResponses()).thenReturn(books);
 
-        List<Book> result = bookService.getAllBooks();
+        List<BookResponse> result = bookService.getAllBooks();
 
         assertEquals(2, result.size());
+        verify(bookRepository, never()).findAll();
     }
 
     /* ==========================
@@ -376,14 +417,86 @@ class BookServiceTest {
 
     @Test
     void getAvailableBooks_ShouldReturnOnlyAvailableBooks() {
-        List<Book> books = Arrays.asList(new Book(), new Book());
-        when(bookRepository.findByStatus(BookStatus.AVAILABLE))
+        List<BookResponse> books = Arrays.asList(
+                BookResponse.from(bookWithId(1L)),
+                BookResponse.from(bookWithId(2L)));
+        when(bookAvailabilityIndex.availableBooks())
                 .thenReturn(books);
 
-        List<Book> result = bookService.getAvailableBooks();
+        List<BookResponse> result = bookService.getAvailableBooks();
 
         assertEquals(2, result.size());
-        verify(bookRepository).findByStatus(BookStatus.AVAILABLE);
+        verify(bookAvailabilityIndex).availableBooks();
+        verifyNoInteractions(bookRepository);
+    }
+
+    /* ==========================
+       KEYSET PAGINATION
+       ========================== */
+
+    @Test
+    void getAllBooksPage_ShouldSeekFromStart_AndReturnNextCursor_WhenMoreRowsExist() {
+        when(bookRepository.findResponsesAfter(0L, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(
+                        BookResponse.from(bookWithId(1L)),
+                        BookResponse.from(bookWithId(2L)),
+                        BookResponse.from(bookWithId(3L))));
+
+        CursorPage<BookResponse> page = bookService.getAllBooks(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getItems().get(1).getId());
+        assertEquals(2L, CatalogCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getAllBooksPage_ShouldSeekAfterCursor_AndReturnNoCursorOnLastPage() {
+        when(bookRepository.findResponsesAfter(2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(BookResponse.from(bookWithId(5L))));
+
+        CursorPage<BookResponse> page = bookService.getAllBooks(CatalogCursor.encode(2L), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAvailableBooksPage_ShouldClampSizeToConfiguredMaximum() {
+        libraryProperties.getCatalog().setMaxPageSize(5);
+        when(bookAvailabilityIndex.availableBooksAfter(0L, 6))
+                .thenReturn(List.of());
+
+        CursorPage<BookResponse> page = bookService.getAvailableBooks(null, 500);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(bookAvailabilityIndex).availableBooksAfter(0L, 6);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getAvailableBooksPage_ShouldSeekIndexAfterCursor() {
+        when(bookAvailabilityIndex.availableBooksAfter(4L, 2))
+                .thenReturn(List.of(BookResponse.from(bookWithId(9L)), BookResponse.from(bookWithId(12L))));
+
+        CursorPage<BookResponse> page = bookService.getAvailableBooks(CatalogCursor.encode(4L), 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(9L, CatalogCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getAvailableBooksPage_ShouldThrowBadRequest_WhenCursorIsTampered() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookService.getAvailableBooks("not-a-cursor", 10));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(bookAvailabilityIndex);
+    }
+
+    @Test
+    void getAllBooksPage_ShouldThrowBadRequest_WhenSizeIsNotPositive() {
+        assertThrows(BadRequestException.class,
+                () -> bookService.getAllBooks(null, 0));
     }
 
     @Test
@@ -397,7 +510,7 @@ class BookServiceTest {
         Book updated = new Book();
         updated.setAuthor("NewAuthor");
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
 
         Book result = bookService.updateBook(1L, updated);
 
@@ -417,7 +530,7 @@ class BookServiceTest {
         Book updated = new Book();
         updated.setStatus(BookStatus.BORROWED);
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
 
         Book result = bookService.updateBook(1L, updated);
 
@@ -438,7 +551,7 @@ class BookServiceTest {
         updated.setTitle("NewTitle");
         updated.setAuthor("NewAuthor");
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
 
         Book result = bookService.updateBook(1L, updated);
 
@@ -461,7 +574,7 @@ class BookServiceTest {
         updated.setAuthor("NewAuthor");
         updated.setStatus(null); // explicit null
     
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(existing));
     
         Book result = bookService.updateBook(1L, updated);
     
@@ -471,4 +584,65 @@ class BookServiceTest {
     
     }
 
+    /* ==========================
+       SEARCH
+       ========================== */
+
+    @Test
+    void searchBooks_ShouldDelegateToIndex_WithClampedSize() {
+        libraryProperties.getCatalog().setMaxPageSize(10);
+        BookSearchResponse expected = new BookSearchResponse(0, 1, 10, List.of());
+        when(bookSearchIndex.search("clean code", 1, 10)).thenReturn(expected);
+
+        BookSearchResponse result = bookService.searchBooks("clean code", 1, 50);
+
+        assertSame(expected, result);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void searchBooks_ShouldThrowBadRequest_WhenQueryIsBlank() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookService.searchBooks("  ", 0, 10));
+
+        assertEquals("q is required", exception.getMessage());
+        verifyNoInteractions(bookSearchIndex);
+    }
+
+    @Test
+    void searchBooks_ShouldThrowBadRequest_WhenPageIsNegative() {
+        assertThrows(BadRequestException.class,
+                () -> bookService.searchBooks("code", -1, 10));
+    }
+
+    /* ==========================
+       CHANGE FEED
+       ========================== */
+
+    @Test
+    void getChangesSince_ShouldDelegateToChangeLog_WithClampedSize() {
+        libraryProperties.getCatalog().setMaxPageSize(10);
+        BookChangesResponse expected = new BookChangesResponse(5L, 5L, false, false, List.of());
+        when(catalogChangeLog.changesSince(5L, 10)).thenReturn(expected);
+
+        assertSame(expected, bookService.getChangesSince(5L, 500));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getChangesSince_ShouldThrowBadRequest_WhenSinceIsMissingOrNegative() {
+        BadRequestException missing = assertThrows(BadRequestException.class,
+                () -> bookService.getChangesSince(null, 10));
+        assertEquals("since is required", missing.getMessage());
+
+        assertThrows(BadRequestException.class,
+                () -> bookService.getChangesSince(-1L, 10));
+        verifyNoInteractions(catalogChangeLog);
+    }
+
+    private Book bookWithId(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
 }
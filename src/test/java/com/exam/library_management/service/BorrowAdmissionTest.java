@@ -0,0 +1,168 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BorrowAdmissionTest {
+
+    private LibraryProperties libraryProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService threads;
+
+    @BeforeEach
+    void setUp() {
+        libraryProperties = new LibraryProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        threads = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void admit_ShouldFailQueuedRequestsFast_OnceTheBookIsClaimed() throws Exception {
+        BorrowAdmission admission = new BorrowAdmission(libraryProperties, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger databaseCalls = new AtomicInteger();
+
+        Future<String> winner = threads.submit(() -> admission.admit(7L, () -> {
+            entered.countDown();
+            await(release);
+            return "claimed";
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        Future<String> second = threads.submit(() -> admission.admit(7L, () -> {
+            databaseCalls.incrementAndGet();
+            return "second";
+        }));
+        Future<String> third = threads.submit(() -> admission.admit(7L, () -> {
+            databaseCalls.incrementAndGet();
+            return "third";
+        }));
+        awaitQueueDepth(2);
+
+        release.countDown();
+
+        assertEquals("claimed", winner.get(5, TimeUnit.SECONDS));
+        assertFailsWith(BadRequestException.class, second);
+        assertFailsWith(BadRequestException.class, third);
+        assertEquals(0, databaseCalls.get());
+        assertEquals(2.0, meterRegistry.get("library.borrow.admission.rejected")
+                .tag("reason", "claimed").counter().count());
+        assertEquals(3, meterRegistry.get("library.borrow.admission.wait")
+                .tag("outcome", "admitted").timer().count());
+
+        // A request arriving after the queue drained is checked against the database again.
+        assertEquals("later", admission.admit(7L, () -> "later"));
+        assertEquals(0, admission.trackedBooks());
+    }
+
+    @Test
+    void admit_ShouldLetTheNextRequestThrough_WhenTheHolderFails() throws Exception {
+        BorrowAdmission admission = new BorrowAdmission(libraryProperties, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> failing = threads.submit(() -> admission.admit(5L, () -> {
+            entered.countDown();
+            await(release);
+            throw new BadRequestException("You already have a borrowed book. Please return it first.");
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<String> next = threads.submit(() -> admission.admit(5L, () -> "borrowed"));
+        awaitQueueDepth(1);
+
+        release.countDown();
+
+        assertFailsWith(BadRequestException.class, failing);
+        assertEquals("borrowed", next.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void admit_ShouldRejectWithServiceBusy_WhenTheWaitExceedsTheLimit() throws Exception {
+        libraryProperties.getBorrowAdmission().setMaxWait(Duration.ofMillis(50));
+        BorrowAdmission admission = new BorrowAdmission(libraryProperties, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> holder = threads.submit(() -> admission.admit(2L, () -> {
+            entered.countDown();
+            await(release);
+            return "claimed";
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class,
+                () -> admission.admit(2L, () -> "late"));
+        assertEquals(BorrowAdmission.BUSY_MESSAGE, ex.getMessage());
+        assertEquals(1.0, meterRegistry.get("library.borrow.admission.rejected")
+                .tag("reason", "timeout").counter().count());
+        assertEquals(1, meterRegistry.get("library.borrow.admission.wait")
+                .tag("outcome", "timeout").timer().count());
+
+        release.countDown();
+        assertEquals("claimed", holder.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void admit_ShouldNotQueueBehindOtherBooks() throws Exception {
+        BorrowAdmission admission = new BorrowAdmission(libraryProperties, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> holder = threads.submit(() -> admission.admit(4L, () -> {
+            entered.countDown();
+            await(release);
+            return "claimed";
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertEquals("other", admission.admit(36L, () -> "other"));
+        assertEquals(1, admission.trackedBooks());
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(0, admission.trackedBooks());
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("library.borrow.admission.queue").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "requests never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertFailsWith(Class<? extends Throwable> type, Future<?> future) {
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(type, ex.getCause());
+    }
+}
@@ -0,0 +1,255 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BorrowBatchItem;
+import com.exam.library_management.dto.BorrowBatchItemResult;
+import com.exam.library_management.dto.BorrowBatchResult;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.event.HoldQueueChangedEvent;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BorrowBatchServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LibraryProperties properties;
+    private BorrowBatchService borrowBatchService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LibraryProperties();
+        properties.setBorrowDurationDays(14);
+        properties.setLateFeePerDay(10);
+        properties.getBorrowBatch().setChunkSize(2);
+
+        borrowBatchService = new BorrowBatchService(
+                jdbcTemplate, transactionTemplate, bookRepository, properties, eventPublisher);
+
+        lenient().doAnswer(this::runInTransaction).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenAnswer(invocation -> {
+                    int[] counts = new int[invocation.<SqlParameterSource[]>getArgument(1).length];
+                    Arrays.fill(counts, 1);
+                    return counts;
+                });
+    }
+
+    /* ==========================
+       BORROW
+       ========================== */
+
+    @Test
+    void borrowBooks_ShouldApplyBorrowRulesPerItem() throws Exception {
+        properties.getBorrowBatch().setChunkSize(10);
+        rows("FROM books",
+                Map.of("id", 10L, "status", "AVAILABLE"),
+                Map.of("id", 12L, "status", "AVAILABLE"));
+        rows("FROM users",
+                Map.of("id", 1L, "role", "USER"),
+                Map.of("id", 2L, "role", "USER"),
+                Map.of("id", 3L, "role", "ADMIN"),
+                Map.of("id", 4L, "role", "USER"));
+        LocalDate due = LocalDate.now().plusDays(14);
+        doAnswer(rowsAnswer())
+                .doAnswer(rowsAnswer(Map.of("id", 100L, "user_id", 1L, "book_id", 10L, "due_date", due)))
+                .when(jdbcTemplate).query(contains("active_user_id IN"), anyMap(), any(RowCallbackHandler.class));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book(10L, BookStatus.BORROWED)));
+
+        BorrowBatchResult result = borrowBatchService.borrowBooks(List.of(
+                new BorrowBatchItem(1L, 10L),
+                new BorrowBatchItem(2L, 10L),
+                new BorrowBatchItem(3L, 12L),
+                new BorrowBatchItem(1L, 12L),
+                new BorrowBatchItem(4L, 99L)));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(4, result.getFailed());
+        List<BorrowBatchItemResult> items = result.getItems();
+        assertTrue(items.get(0).isSuccess());
+        assertEquals(100L, items.get(0).getRecordId());
+        assertEquals(due, items.get(0).getDueDate());
+        assertEquals("This book is currently not available for borrowing", items.get(1).getMessage());
+        assertEquals("Only library members can borrow books", items.get(2).getMessage());
+        assertEquals("You already have a borrowed book. Please return it first.", items.get(3).getMessage());
+        assertEquals("Book not found", items.get(4).getMessage());
+
+        ArgumentCaptor<SqlParameterSource[]> statusUpdates = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE books"), statusUpdates.capture());
+        assertEquals(1, statusUpdates.getValue().length);
+        assertEquals("BORROWED", statusUpdates.getValue()[0].getValue("status"));
+
+        ArgumentCaptor<BookChangedEvent> event = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(BookStatus.AVAILABLE, event.getValue().getPreviousStatus());
+
+        ArgumentCaptor<SqlParameterSource[]> activity = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(contains("borrowed_count + 1"), activity.capture());
+        assertEquals(1, activity.getValue().length);
+        assertEquals(LocalDate.now().withDayOfMonth(1), activity.getValue()[0].getValue("month"));
+    }
+
+    @Test
+    void borrowBooks_ShouldRejectOversizedBatch() {
+        properties.getBorrowBatch().setMaxItems(1);
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> borrowBatchService.borrowBooks(
+                List.of(new BorrowBatchItem(1L, 10L), new BorrowBatchItem(2L, 11L))));
+
+        assertEquals("A batch may contain at most 1 items", ex.getMessage());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void borrowBooks_ShouldMarkRolledBackChunkForRetry_AndKeepGoing() {
+        doThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+                .doAnswer(this::runInTransaction)
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        BorrowBatchResult result = borrowBatchService.borrowBooks(List.of(
+                new BorrowBatchItem(1L, 10L),
+                new BorrowBatchItem(2L, 11L),
+                new BorrowBatchItem(3L, 12L)));
+
+        assertEquals(3, result.getFailed());
+        assertEquals(BorrowBatchService.RETRY_MESSAGE, result.getItems().get(0).getMessage());
+        assertEquals(BorrowBatchService.RETRY_MESSAGE, result.getItems().get(1).getMessage());
+        // The second chunk ran; nothing was stubbed, so its user does not exist.
+        assertEquals("User not found", result.getItems().get(2).getMessage());
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    /* ==========================
+       RETURN
+       ========================== */
+
+    @Test
+    void returnBooks_ShouldChargeLateFees_AndHandBookToFirstWaiter() throws Exception {
+        LocalDate due = LocalDate.now().minusDays(3);
+        rows("FROM books",
+                Map.of("id", 10L, "status", "BORROWED"),
+                Map.of("id", 11L, "status", "BORROWED"));
+        rows("FROM borrow_records",
+                Map.of("id", 100L, "user_id", 1L, "book_id", 10L, "due_date", due),
+                Map.of("id", 101L, "user_id", 9L, "book_id", 11L, "due_date", due));
+        rows("FROM holds", Map.of("id", 55L, "book_id", 10L));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book(10L, BookStatus.RESERVED)));
+
+        BorrowBatchResult result = borrowBatchService.returnBooks(List.of(
+                new BorrowBatchItem(1L, 10L),
+                new BorrowBatchItem(2L, 11L)));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(BigDecimal.valueOf(30), result.getItems().get(0).getLateFee());
+        assertEquals("This book is not borrowed by this user", result.getItems().get(1).getMessage());
+
+        ArgumentCaptor<SqlParameterSource[]> statusUpdates = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE books"), statusUpdates.capture());
+        assertEquals("RESERVED", statusUpdates.getValue()[0].getValue("status"));
+        verify(jdbcTemplate).batchUpdate(contains("status = 'READY'"), any(SqlParameterSource[].class));
+        ArgumentCaptor<SqlParameterSource[]> activity = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(contains("returned_count + 1"), activity.capture());
+        assertEquals(1, activity.getValue().length);
+        assertEquals(BigDecimal.valueOf(30), activity.getValue()[0].getValue("lateFee"));
+        verify(eventPublisher).publishEvent(any(HoldQueueChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void returnBooks_ShouldReportBookWithoutOpenLoan() throws Exception {
+        rows("FROM books", Map.of("id", 10L, "status", "AVAILABLE"));
+
+        BorrowBatchResult result = borrowBatchService.returnBooks(List.of(new BorrowBatchItem(1L, 10L)));
+
+        assertEquals(BorrowBatchService.NOT_BORROWED_MESSAGE, result.getItems().get(0).getMessage());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private Object runInTransaction(InvocationOnMock invocation) {
+        Consumer<TransactionStatus> callback = invocation.getArgument(0);
+        callback.accept(null);
+        return null;
+    }
+
+    @SafeVarargs
+    private void rows(String sqlFragment, Map<String, Object>... rows) {
+        lenient().doAnswer(rowsAnswer(rows))
+                .when(jdbcTemplate).query(contains(sqlFragment), anyMap(), any(RowCallbackHandler.class));
+    }
+
+    @SafeVarargs
+    private Answer<Void> rowsAnswer(Map<String, Object>... rows) {
+        return invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Map<String, Object> row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        };
+    }
+
+    private ResultSet resultSet(Map<String, Object> row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getLong(anyString()))
+                .thenAnswer(invocation -> ((Number) row.get(invocation.<String>getArgument(0))).longValue());
+        lenient().when(rs.getString(anyString()))
+                .thenAnswer(invocation -> (String) row.get(invocation.<String>getArgument(0)));
+        lenient().when(rs.getObject(anyString(), eq(LocalDate.class)))
+                .thenAnswer(invocation -> row.get(invocation.<String>getArgument(0)));
+        return rs;
+    }
+
+    private Book book(Long id, BookStatus status) {
+        Book book = new Book();
+        book.setId(id);
+        book.setBookCode("BK-" + id);
+        book.setStatus(status);
+        return book;
+    }
+}
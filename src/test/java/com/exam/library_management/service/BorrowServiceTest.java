@@ -5,25 +5,33 @@ import com.exam.library_management.entity.Book;
 import com.exam.library_management.entity.BorrowRecord;
 import com.exam.library_management.entity.User;
 import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
 import com.exam.library_management.exception.BadRequestException;
 import com.exam.library_management.exception.ResourceNotFoundException;
 import com.exam.library_management.repository.BookRepository;
 import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.MonthlyActivityRepository;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDate;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +46,15 @@ class BorrowServiceTest {
     @Mock
     private LibraryProperties libraryProperties;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private MonthlyActivityRepository monthlyActivityRepository;
+
     @InjectMocks
     private BorrowService borrowService;
 
@@ -61,8 +78,15 @@ class BorrowServiceTest {
     @Test
     void borrowBook_shouldThrowIfUserAlreadyHasActiveBorrow() {
 
-        when(borrowRecordRepository.existsByUserAndReturnDateIsNull(user))
-                .thenReturn(true);
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.AVAILABLE, BookStatus.BORROWED))
+                .thenReturn(1);
+
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(book));
+
+        when(borrowRecordRepository.saveAndFlush(any(BorrowRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("insert failed", new SQLIntegrityConstraintViolationException(
+                        "Duplicate entry '1' for key 'borrow_records." + BorrowRecord.ACTIVE_LOAN_KEY + "'")));
 
         BadRequestException exception = assertThrows(BadRequestException.class,
                 () -> borrowService.borrowBook(user, 1L));
@@ -70,16 +94,35 @@ class BorrowServiceTest {
                 "You already have a borrowed book. Please return it first.",
                 exception.getMessage()
         );
+        verifyNoInteractions(monthlyActivityRepository);
     }
 
     @Test
-    void borrowBook_shouldThrowIfBookNotFound() {
+    void borrowBook_shouldRethrowOtherIntegrityViolations() {
 
-        when(borrowRecordRepository.existsByUserAndReturnDateIsNull(user))
-                .thenReturn(false);
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.AVAILABLE, BookStatus.BORROWED))
+                .thenReturn(1);
 
         when(bookRepository.findById(1L))
-                .thenReturn(Optional.empty());
+                .thenReturn(Optional.of(book));
+
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("insert failed",
+                new SQLIntegrityConstraintViolationException("Cannot add or update a child row"));
+        when(borrowRecordRepository.saveAndFlush(any(BorrowRecord.class)))
+                .thenThrow(failure);
+
+        assertSame(failure, assertThrows(DataIntegrityViolationException.class,
+                () -> borrowService.borrowBook(user, 1L)));
+    }
+
+    @Test
+    void borrowBook_shouldThrowIfBookNotFound() {
+
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.AVAILABLE, BookStatus.BORROWED))
+                .thenReturn(0);
+
+        when(bookRepository.existsById(1L))
+                .thenReturn(false);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
                 () -> borrowService.borrowBook(user, 1L));
@@ -89,13 +132,11 @@ class BorrowServiceTest {
     @Test
     void borrowBook_shouldThrowIfBookNotAvailable() {
 
-        book.setStatus(BookStatus.BORROWED);
-
-        when(borrowRecordRepository.existsByUserAndReturnDateIsNull(user))
-                .thenReturn(false);
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.AVAILABLE, BookStatus.BORROWED))
+                .thenReturn(0);
 
-        when(bookRepository.findById(1L))
-                .thenReturn(Optional.of(book));
+        when(bookRepository.existsById(1L))
+                .thenReturn(true);
 
         BadRequestException exception = assertThrows(BadRequestException.class,
                 () -> borrowService.borrowBook(user, 1L));
@@ -103,13 +144,16 @@ class BorrowServiceTest {
                 "This book is currently not available for borrowing",
                 exception.getMessage()
         );
+        verify(bookRepository, never()).findById(any());
+        verify(borrowRecordRepository, never()).saveAndFlush(any(BorrowRecord.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void borrowBook_shouldBorrowSuccessfully_WithConfiguredDuration() {
 
-        when(borrowRecordRepository.existsByUserAndReturnDateIsNull(user))
-                .thenReturn(false);
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.AVAILABLE, BookStatus.BORROWED))
+                .thenReturn(1);
 
         when(bookRepository.findById(1L))
                 .thenReturn(Optional.of(book));
@@ -117,7 +161,7 @@ class BorrowServiceTest {
         when(libraryProperties.getBorrowDurationDays())
                 .thenReturn(21);
 
-        when(borrowRecordRepository.save(any(BorrowRecord.class)))
+        when(borrowRecordRepository.saveAndFlush(any(BorrowRecord.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         BorrowRecord result = borrowService.borrowBook(user, 1L);
@@ -128,7 +172,49 @@ class BorrowServiceTest {
         assertEquals(LocalDate.now(), result.getBorrowDate());
         assertEquals(LocalDate.now().plusDays(21), result.getDueDate());
 
-        verify(borrowRecordRepository).save(any(BorrowRecord.class));
+        verify(borrowRecordRepository).saveAndFlush(any(BorrowRecord.class));
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+        verify(monthlyActivityRepository).recordBorrow(LocalDate.now().withDayOfMonth(1), 1L, 1L);
+    }
+
+    @Test
+    void borrowBook_shouldBorrowReservedBook_WhenUserHoldsReadyHold() {
+
+        book.setStatus(BookStatus.BORROWED);
+
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.AVAILABLE, BookStatus.BORROWED))
+                .thenReturn(0);
+        when(holdService.fulfillReadyHold(user, 1L))
+                .thenReturn(true);
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.RESERVED, BookStatus.BORROWED))
+                .thenReturn(1);
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(book));
+        when(borrowRecordRepository.saveAndFlush(any(BorrowRecord.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BorrowRecord result = borrowService.borrowBook(user, 1L);
+
+        assertEquals(book, result.getBook());
+        ArgumentCaptor<BookChangedEvent> event = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(BookStatus.RESERVED, event.getValue().getPreviousStatus());
+    }
+
+    @Test
+    void borrowBook_shouldRejectReservedBook_WhenUserHasNoReadyHold() {
+
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.AVAILABLE, BookStatus.BORROWED))
+                .thenReturn(0);
+        when(holdService.fulfillReadyHold(user, 1L))
+                .thenReturn(false);
+        when(bookRepository.existsById(1L))
+                .thenReturn(true);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> borrowService.borrowBook(user, 1L));
+        assertEquals("This book is currently not available for borrowing", exception.getMessage());
+        verify(bookRepository, never()).compareAndSetStatus(1L, BookStatus.RESERVED, BookStatus.BORROWED);
     }
 
     /* =====================================
@@ -138,7 +224,7 @@ class BorrowServiceTest {
     @Test
     void returnBook_shouldThrowIfNoActiveBorrow() {
 
-        when(borrowRecordRepository.findByUserAndReturnDateIsNull(user))
+        when(borrowRecordRepository.findActiveBookId(1L))
                 .thenReturn(Optional.empty());
 
         BadRequestException exception = assertThrows(BadRequestException.class,
@@ -147,6 +233,28 @@ class BorrowServiceTest {
                 "You do not have any borrowed book to return",
                 exception.getMessage()
         );
+        verify(bookRepository, never()).lockById(any());
+    }
+
+    @Test
+    void returnBook_shouldReject_WhenLoanWasClosedWhileWaitingForLock() {
+
+        book.setStatus(BookStatus.BORROWED);
+        BorrowRecord record = new BorrowRecord();
+        record.setId(9L);
+        record.setUser(user);
+        record.setBook(book);
+        record.setDueDate(LocalDate.now().plusDays(5));
+        openLoan(record);
+        when(borrowRecordRepository.closeLoan(eq(9L), any(), any()))
+                .thenReturn(0);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> borrowService.returnBook(user));
+
+        assertEquals("You do not have any borrowed book to return", exception.getMessage());
+        assertNull(record.getReturnDate());
+        verifyNoInteractions(holdService, eventPublisher, monthlyActivityRepository);
     }
 
     @Test
@@ -157,8 +265,7 @@ class BorrowServiceTest {
         record.setBook(book);
         record.setDueDate(LocalDate.now().plusDays(5)); // not late
 
-        when(borrowRecordRepository.findByUserAndReturnDateIsNull(user))
-                .thenReturn(Optional.of(record));
+        openLoan(record);
 
         when(borrowRecordRepository.save(any()))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -170,6 +277,7 @@ class BorrowServiceTest {
         assertEquals(BookStatus.AVAILABLE, book.getStatus());
 
         verify(borrowRecordRepository).save(record);
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
@@ -180,8 +288,7 @@ class BorrowServiceTest {
         record.setBook(book);
         record.setDueDate(LocalDate.now().minusDays(3)); // 3 days late
 
-        when(borrowRecordRepository.findByUserAndReturnDateIsNull(user))
-                .thenReturn(Optional.of(record));
+        openLoan(record);
 
         when(libraryProperties.getLateFeePerDay())
                 .thenReturn(10);
@@ -198,6 +305,30 @@ class BorrowServiceTest {
         assertEquals(BookStatus.AVAILABLE, book.getStatus());
 
         verify(borrowRecordRepository).save(record);
+        verify(monthlyActivityRepository).recordReturn(LocalDate.now().withDayOfMonth(1), 1L, 1L, expected);
+    }
+
+    @Test
+    void returnBook_shouldReserveBookForFirstWaiter() {
+
+        book.setStatus(BookStatus.BORROWED);
+        BorrowRecord record = new BorrowRecord();
+        record.setUser(user);
+        record.setBook(book);
+        record.setDueDate(LocalDate.now().plusDays(5));
+
+        openLoan(record);
+        when(holdService.handOff(book))
+                .thenReturn(true);
+        when(borrowRecordRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        borrowService.returnBook(user);
+
+        assertEquals(BookStatus.RESERVED, book.getStatus());
+        InOrder order = inOrder(bookRepository, holdService);
+        order.verify(bookRepository).lockById(1L);
+        order.verify(holdService).handOff(book);
     }
 
     @Test
@@ -207,8 +338,7 @@ class BorrowServiceTest {
         record.setBook(book);
         record.setDueDate(LocalDate.now().minusDays(2));
 
-        when(borrowRecordRepository.findByUserAndReturnDateIsNull(user))
-                .thenReturn(Optional.of(record));
+        openLoan(record);
         when(libraryProperties.getLateFeePerDay())
                 .thenReturn(7);
         when(borrowRecordRepository.save(any()))
@@ -218,4 +348,16 @@ class BorrowServiceTest {
 
         assertEquals(BigDecimal.valueOf(14), result.getLateFee());
     }
+
+    // The open loan as the return path sees it: book id, locked book, loan, then the guarded close.
+    private void openLoan(BorrowRecord record) {
+        when(borrowRecordRepository.findActiveBookId(1L))
+                .thenReturn(Optional.of(1L));
+        when(bookRepository.lockById(1L))
+                .thenReturn(Optional.of(book));
+        when(borrowRecordRepository.findByUserAndReturnDateIsNull(user))
+                .thenReturn(Optional.of(record));
+        lenient().when(borrowRecordRepository.closeLoan(any(), any(), any()))
+                .thenReturn(1);
+    }
 }
@@ -0,0 +1,141 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.BookChange;
+import com.exam.library_management.dto.BookChangesResponse;
+import com.exam.library_management.dto.BookResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogChangeLogTest {
+
+    private LibraryProperties libraryProperties;
+    private CatalogChangeLog changeLog;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        libraryProperties = new LibraryProperties();
+        changeLog = new CatalogChangeLog(libraryProperties);
+        start = latestVersion();
+    }
+
+    @Test
+    void changesSince_ShouldReturnChangesAfterVersion_InLogOrder() {
+        changeLog.onBookChanged(BookChangedEvent.created(book(1L, BookStatus.AVAILABLE)));
+        long afterFirst = latestVersion();
+        changeLog.onBookChanged(BookChangedEvent.created(book(2L, BookStatus.AVAILABLE)));
+        changeLog.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED, 1), BookStatus.AVAILABLE));
+
+        BookChangesResponse result = changeLog.changesSince(afterFirst, 10);
+
+        assertFalse(result.isResyncRequired());
+        assertEquals(List.of(2L, 1L), bookIds(result));
+        assertEquals(BookStatus.AVAILABLE, result.getChanges().get(1).getPreviousStatus());
+        assertEquals(latestVersion(), result.getVersion());
+    }
+
+    @Test
+    void onBookChanged_ShouldKeepOnlyLatestEntryPerBook() {
+        changeLog.onBookChanged(BookChangedEvent.created(book(1L, BookStatus.AVAILABLE)));
+        changeLog.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED, 1), BookStatus.AVAILABLE));
+        changeLog.onBookChanged(BookChangedEvent.deleted(book(1L, BookStatus.BORROWED, 1)));
+
+        BookChangesResponse result = changeLog.changesSince(start, 10);
+
+        assertEquals(1, result.getChanges().size());
+        assertEquals(BookChangedEvent.Type.DELETED, result.getChanges().get(0).getType());
+        assertEquals(2L, result.getChanges().get(0).getBookVersion());
+    }
+
+    @Test
+    void onBookChanged_ShouldDropEventsOlderThanTheLoggedBookVersion() {
+        changeLog.onBookChanged(BookChangedEvent.created(book(1L, BookStatus.AVAILABLE)));
+        long beforeRace = latestVersion();
+
+        // The return committed second, but its listener ran first.
+        changeLog.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.AVAILABLE, 2), BookStatus.BORROWED));
+        changeLog.onBookChanged(BookChangedEvent.updated(book(1L, BookStatus.BORROWED, 1), BookStatus.AVAILABLE));
+
+        BookChangesResponse result = changeLog.changesSince(start, 10);
+
+        assertEquals(beforeRace + 1, latestVersion());
+        assertEquals(1, result.getChanges().size());
+        assertEquals(BookStatus.AVAILABLE, result.getChanges().get(0).getBook().getStatus());
+        assertEquals(2L, result.getChanges().get(0).getBookVersion());
+    }
+
+    @Test
+    void changesSince_ShouldPage_WithHasMoreAndNextVersion() {
+        for (long id = 1; id <= 5; id++) {
+            changeLog.onBookChanged(BookChangedEvent.created(book(id, BookStatus.AVAILABLE)));
+        }
+
+        BookChangesResponse first = changeLog.changesSince(start, 2);
+        BookChangesResponse second = changeLog.changesSince(first.getVersion(), 2);
+        BookChangesResponse last = changeLog.changesSince(second.getVersion(), 2);
+
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(1L, 2L), bookIds(first));
+        assertEquals(List.of(3L, 4L), bookIds(second));
+        assertEquals(List.of(5L), bookIds(last));
+        assertFalse(last.isHasMore());
+        assertTrue(changeLog.changesSince(last.getVersion(), 2).getChanges().isEmpty());
+    }
+
+    @Test
+    void changesSince_ShouldRequireResync_WhenBehindCompactionHorizon() {
+        libraryProperties.getCatalog().setChangeLogCapacity(2);
+        for (long id = 1; id <= 3; id++) {
+            changeLog.onBookChanged(BookChangedEvent.created(book(id, BookStatus.AVAILABLE)));
+        }
+
+        BookChangesResponse behind = changeLog.changesSince(start, 10);
+        BookChangesResponse atHorizon = changeLog.changesSince(start + 1, 10);
+
+        assertTrue(behind.isResyncRequired());
+        assertEquals(atHorizon.getVersion(), behind.getVersion());
+        assertFalse(atHorizon.isResyncRequired());
+        assertEquals(List.of(2L, 3L), bookIds(atHorizon));
+    }
+
+    @Test
+    void changesSince_ShouldRequireResync_ForVersionsFromAnotherRun() {
+        assertTrue(changeLog.changesSince(0L, 10).isResyncRequired());
+        assertTrue(changeLog.changesSince(start + 1, 10).isResyncRequired());
+    }
+
+    // Where a client that has read everything would resume from.
+    private long latestVersion() {
+        return changeLog.changesSince(0, Integer.MAX_VALUE).getVersion();
+    }
+
+    private List<Long> bookIds(BookChangesResponse response) {
+        return response.getChanges().stream()
+                .map(BookChange::getBook)
+                .map(BookResponse::getId)
+                .toList();
+    }
+
+    private Book book(Long id, BookStatus status) {
+        return book(id, status, 0);
+    }
+
+    private Book book(Long id, BookStatus status, long version) {
+        Book book = new Book();
+        book.setId(id);
+        book.setBookCode("BK-" + id);
+        book.setTitle("Title " + id);
+        book.setAuthor("Author " + id);
+        book.setStatus(status);
+        book.setVersion(version);
+        return book;
+    }
+}
@@ -0,0 +1,35 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Test
+    void onBookChanged_ShouldAdvanceVersion_AndChangeEtag() {
+        String before = catalogVersion.etag();
+        Book book = new Book();
+        book.setId(1L);
+        book.setStatus(BookStatus.BORROWED);
+
+        catalogVersion.onBookChanged(BookChangedEvent.updated(book, BookStatus.AVAILABLE));
+
+        assertEquals(1, catalogVersion.current());
+        assertNotEquals(before, catalogVersion.etag());
+    }
+
+    @Test
+    void etag_ShouldBeQuotedStrongTag_StableWhileUnchanged() {
+        String etag = catalogVersion.etag();
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertFalse(etag.startsWith("W/"));
+        assertEquals(etag, catalogVersion.etag());
+    }
+}
@@ -0,0 +1,84 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.event.HoldQueueChangedEvent;
+import com.exam.library_management.repository.HoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HoldQueueCacheTest {
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    private HoldQueueCache holdQueueCache;
+
+    @BeforeEach
+    void setUp() {
+        holdQueueCache = new HoldQueueCache(holdRepository, new LibraryProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void position_ShouldLoadWaitlistOnce_AndAnswerFromMemory() {
+        when(holdRepository.findUserIdsByBookAndStatus(1L, HoldStatus.WAITING)).thenReturn(List.of(7L, 3L));
+
+        assertEquals(2, holdQueueCache.position(1L, 3L));
+        assertEquals(1, holdQueueCache.position(1L, 7L));
+        assertEquals(0, holdQueueCache.position(1L, 9L));
+
+        verify(holdRepository, times(1)).findUserIdsByBookAndStatus(1L, HoldStatus.WAITING);
+    }
+
+    @Test
+    void onHoldQueueChanged_ShouldReloadOnlyThatBook() {
+        when(holdRepository.findUserIdsByBookAndStatus(1L, HoldStatus.WAITING))
+                .thenReturn(List.of(7L, 3L), List.of(3L));
+        when(holdRepository.findUserIdsByBookAndStatus(2L, HoldStatus.WAITING)).thenReturn(List.of(5L));
+        holdQueueCache.waitingUsers(1L);
+        holdQueueCache.waitingUsers(2L);
+
+        holdQueueCache.onHoldQueueChanged(new HoldQueueChangedEvent(1L));
+
+        assertEquals(List.of(3L), holdQueueCache.waitingUsers(1L));
+        assertEquals(List.of(5L), holdQueueCache.waitingUsers(2L));
+        verify(holdRepository, times(1)).findUserIdsByBookAndStatus(2L, HoldStatus.WAITING);
+    }
+
+    @Test
+    void waitingUsers_ShouldNotCacheEmptyWaitlist() {
+        when(holdRepository.findUserIdsByBookAndStatus(1L, HoldStatus.WAITING)).thenReturn(List.of());
+
+        assertEquals(List.of(), holdQueueCache.waitingUsers(1L));
+        assertEquals(List.of(), holdQueueCache.waitingUsers(1L));
+
+        verify(holdRepository, times(2)).findUserIdsByBookAndStatus(1L, HoldStatus.WAITING);
+    }
+
+    @Test
+    void waitingUsers_ShouldNotCacheLoad_ThatOverlapsAnEviction() {
+        when(holdRepository.findUserIdsByBookAndStatus(1L, HoldStatus.WAITING))
+                .thenAnswer(invocation -> {
+                    // The change commits while this read is still using its older snapshot.
+                    holdQueueCache.onHoldQueueChanged(new HoldQueueChangedEvent(1L));
+                    return List.of(7L, 3L);
+                })
+                .thenReturn(List.of(3L));
+
+        assertEquals(List.of(7L, 3L), holdQueueCache.waitingUsers(1L));
+        assertEquals(List.of(3L), holdQueueCache.waitingUsers(1L));
+        assertEquals(List.of(3L), holdQueueCache.waitingUsers(1L));
+
+        verify(holdRepository, times(2)).findUserIdsByBookAndStatus(1L, HoldStatus.WAITING);
+    }
+}
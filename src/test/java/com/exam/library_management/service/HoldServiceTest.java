@@ -0,0 +1,276 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.HoldResponse;
+import com.exam.library_management.entity.Book;
+import com.exam.library_management.entity.Hold;
+import com.exam.library_management.entity.User;
+import com.exam.library_management.enums.BookStatus;
+import com.exam.library_management.enums.HoldStatus;
+import com.exam.library_management.event.BookChangedEvent;
+import com.exam.library_management.event.HoldQueueChangedEvent;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.ResourceNotFoundException;
+import com.exam.library_management.repository.BookRepository;
+import com.exam.library_management.repository.HoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceTest {
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private HoldQueueCache holdQueueCache;
+
+    @Spy
+    private LibraryProperties libraryProperties = new LibraryProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private HoldService holdService;
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void setup() {
+        user = new User();
+        user.setId(3L);
+
+        book = new Book();
+        book.setId(1L);
+        book.setBookCode("BK-1");
+        book.setTitle("Clean Code");
+        book.setStatus(BookStatus.BORROWED);
+    }
+
+    /* ==========================
+       PLACE HOLD
+       ========================== */
+
+    @Test
+    void placeHold_ShouldQueueBehindEarlierHolds() {
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+        when(holdRepository.saveAndFlush(any(Hold.class))).thenAnswer(invocation -> {
+            Hold hold = invocation.getArgument(0);
+            hold.setId(10L);
+            return hold;
+        });
+        when(holdRepository.countByBookIdAndStatusAndIdLessThan(1L, HoldStatus.WAITING, 10L)).thenReturn(2L);
+
+        HoldResponse response = holdService.placeHold(user, 1L);
+
+        assertEquals(HoldStatus.WAITING, response.getStatus());
+        assertEquals("BK-1", response.getBookCode());
+        assertEquals(3, response.getPosition());
+        verify(eventPublisher).publishEvent(any(HoldQueueChangedEvent.class));
+    }
+
+    @Test
+    void placeHold_ShouldRejectAvailableBook() {
+        book.setStatus(BookStatus.AVAILABLE);
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> holdService.placeHold(user, 1L));
+
+        assertEquals("This book is available. Borrow it instead of placing a hold", ex.getMessage());
+        verify(holdRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void placeHold_ShouldThrowNotFound_WhenBookMissing() {
+        when(bookRepository.lockById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> holdService.placeHold(user, 1L));
+    }
+
+    @Test
+    void placeHold_ShouldRejectSecondLiveHoldOnSameBook() {
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+        when(holdRepository.saveAndFlush(any(Hold.class))).thenThrow(new DataIntegrityViolationException("insert failed",
+                new SQLIntegrityConstraintViolationException(
+                        "Duplicate entry '3-1' for key 'holds." + Hold.LIVE_HOLD_KEY + "'")));
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> holdService.placeHold(user, 1L));
+
+        assertEquals("You already have a hold on this book", ex.getMessage());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    /* ==========================
+       HANDOFF AND RELEASE
+       ========================== */
+
+    @Test
+    void handOff_ShouldMarkOldestWaiterReady_WithPickupWindow() {
+        libraryProperties.getHolds().setPickupWindow(Duration.ofHours(24));
+        Hold waiting = hold(11L, HoldStatus.WAITING);
+        when(holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(1L, HoldStatus.WAITING))
+                .thenReturn(Optional.of(waiting));
+
+        assertTrue(holdService.handOff(book));
+
+        assertEquals(HoldStatus.READY, waiting.getStatus());
+        assertTrue(waiting.getReadyUntil().isAfter(LocalDateTime.now().plusHours(23)));
+        verify(eventPublisher).publishEvent(any(HoldQueueChangedEvent.class));
+    }
+
+    @Test
+    void handOff_ShouldReturnFalse_WhenNobodyWaits() {
+        when(holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(1L, HoldStatus.WAITING))
+                .thenReturn(Optional.empty());
+
+        assertFalse(holdService.handOff(book));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void cancelHold_ShouldDropWaitingHoldFromQueue() {
+        when(holdRepository.findByIdAndUserId(11L, 3L)).thenReturn(Optional.of(hold(11L, HoldStatus.WAITING)));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+        when(holdRepository.compareAndSetStatus(11L, HoldStatus.WAITING, HoldStatus.CANCELLED)).thenReturn(1);
+
+        holdService.cancelHold(user, 11L);
+
+        verify(eventPublisher).publishEvent(any(HoldQueueChangedEvent.class));
+        verify(bookRepository, never()).compareAndSetStatus(any(), any(), any());
+    }
+
+    @Test
+    void cancelHold_ShouldReleaseReservedBook_WhenNobodyElseWaits() {
+        book.setStatus(BookStatus.RESERVED);
+        when(holdRepository.findByIdAndUserId(11L, 3L)).thenReturn(Optional.of(hold(11L, HoldStatus.READY)));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+        when(holdRepository.compareAndSetStatus(11L, HoldStatus.WAITING, HoldStatus.CANCELLED)).thenReturn(0);
+        when(holdRepository.compareAndSetStatus(11L, HoldStatus.READY, HoldStatus.CANCELLED)).thenReturn(1);
+        when(holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(1L, HoldStatus.WAITING))
+                .thenReturn(Optional.empty());
+        when(bookRepository.compareAndSetStatus(1L, BookStatus.RESERVED, BookStatus.AVAILABLE)).thenReturn(1);
+
+        holdService.cancelHold(user, 11L);
+
+        assertEquals(BookStatus.AVAILABLE, book.getStatus());
+        ArgumentCaptor<BookChangedEvent> event = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(BookStatus.RESERVED, event.getValue().getPreviousStatus());
+    }
+
+    @Test
+    void cancelHold_ShouldRejectClosedHold() {
+        when(holdRepository.findByIdAndUserId(11L, 3L)).thenReturn(Optional.of(hold(11L, HoldStatus.FULFILLED)));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> holdService.cancelHold(user, 11L));
+
+        assertEquals("This hold is no longer active", ex.getMessage());
+    }
+
+    @Test
+    void expireReadyHolds_ShouldPassBookToNextWaiter() {
+        book.setStatus(BookStatus.RESERVED);
+        Hold lapsed = hold(11L, HoldStatus.READY);
+        Hold next = hold(12L, HoldStatus.WAITING);
+        when(holdRepository.findExpiredReady(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(lapsed));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+        when(holdRepository.compareAndSetStatus(11L, HoldStatus.READY, HoldStatus.EXPIRED)).thenReturn(1);
+        when(holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(1L, HoldStatus.WAITING))
+                .thenReturn(Optional.of(next));
+
+        holdService.expireReadyHolds();
+
+        assertEquals(HoldStatus.READY, next.getStatus());
+        assertEquals(BookStatus.RESERVED, book.getStatus());
+        verify(bookRepository, never()).compareAndSetStatus(any(), any(), any());
+    }
+
+    @Test
+    void expireReadyHolds_ShouldSkipHoldClosedMeanwhile() {
+        when(holdRepository.findExpiredReady(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(hold(11L, HoldStatus.READY)));
+        when(bookRepository.lockById(1L)).thenReturn(Optional.of(book));
+        when(holdRepository.compareAndSetStatus(11L, HoldStatus.READY, HoldStatus.EXPIRED)).thenReturn(0);
+
+        holdService.expireReadyHolds();
+
+        verify(holdRepository, never()).findFirstByBookIdAndStatusOrderByIdAsc(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void expireReadyHolds_ShouldLockBooksInIdOrder() {
+        Book other = new Book();
+        other.setId(5L);
+        Hold laterBook = hold(11L, HoldStatus.READY);
+        laterBook.setBook(other);
+        Hold earlierBook = hold(12L, HoldStatus.READY);
+        when(holdRepository.findExpiredReady(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(laterBook, earlierBook));
+        when(bookRepository.lockById(any())).thenAnswer(invocation ->
+                Optional.of(invocation.<Long>getArgument(0) == 5L ? other : book));
+
+        holdService.expireReadyHolds();
+
+        InOrder order = inOrder(bookRepository);
+        order.verify(bookRepository).lockById(1L);
+        order.verify(bookRepository).lockById(5L);
+    }
+
+    /* ==========================
+       LIST HOLDS
+       ========================== */
+
+    @Test
+    void getHolds_ShouldFillWaitlistPositionsFromCache() {
+        HoldResponse waiting = new HoldResponse(11L, 1L, "BK-1", "Clean Code",
+                HoldStatus.WAITING, LocalDateTime.now(), null);
+        HoldResponse ready = new HoldResponse(12L, 2L, "BK-2", "Refactoring",
+                HoldStatus.READY, LocalDateTime.now(), LocalDateTime.now().plusDays(2));
+        when(holdRepository.findResponsesByUser(eq(3L), any())).thenReturn(List.of(waiting, ready));
+        when(holdQueueCache.position(1L, 3L)).thenReturn(4);
+
+        List<HoldResponse> holds = holdService.getHolds(user);
+
+        assertEquals(4, holds.get(0).getPosition());
+        assertNull(holds.get(1).getPosition());
+        verify(holdQueueCache, never()).position(2L, 3L);
+    }
+
+    private Hold hold(Long id, HoldStatus status) {
+        Hold hold = new Hold();
+        hold.setId(id);
+        hold.setUser(user);
+        hold.setBook(book);
+        hold.setStatus(status);
+        return hold;
+    }
+}
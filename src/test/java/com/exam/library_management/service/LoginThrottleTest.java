@@ -0,0 +1,138 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private LibraryProperties properties;
+    private MeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LibraryProperties();
+        properties.getLoginThrottle().setWindow(Duration.ofSeconds(60));
+        properties.getLoginThrottle().setMaxAttemptsPerUsername(3);
+        properties.getLoginThrottle().setMaxAttemptsPerAddress(5);
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(properties, meterRegistry, now::get);
+    }
+
+    /* ==========================
+       USERNAME
+       ========================== */
+
+    @Test
+    void acquire_ShouldRejectUsernameOverLimit_RegardlessOfCase() {
+        loginThrottle.acquire("reader@test.com", "10.0.0.1");
+        loginThrottle.acquire("Reader@Test.com", "10.0.0.2");
+        loginThrottle.acquire("reader@test.com ", "10.0.0.3");
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire("READER@test.com", "10.0.0.4"));
+
+        assertEquals(LoginThrottle.THROTTLED_MESSAGE, ex.getMessage());
+        assertEquals(Duration.ofSeconds(60), ex.getRetryAfter());
+        assertEquals(1.0, rejected("username"));
+        // Other users are unaffected.
+        loginThrottle.acquire("other@test.com", "10.0.0.4");
+    }
+
+    @Test
+    void acquire_ShouldWeighPreviousWindowByItsOverlap() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquire("reader@test.com", null);
+        }
+
+        // 30s into the next window half of the previous three still count: room for two more, not three.
+        now.addAndGet(90 * SECOND);
+        loginThrottle.acquire("reader@test.com", null);
+        loginThrottle.acquire("reader@test.com", null);
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("reader@test.com", null));
+
+        // Two full windows later nothing is left.
+        now.addAndGet(120 * SECOND);
+        loginThrottle.acquire("reader@test.com", null);
+    }
+
+    @Test
+    void reset_ShouldClearUsernameAfterSuccessfulLogin() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquire("reader@test.com", null);
+        }
+
+        loginThrottle.reset("reader@test.com");
+
+        loginThrottle.acquire("reader@test.com", null);
+    }
+
+    /* ==========================
+       ADDRESS
+       ========================== */
+
+    @Test
+    void acquire_ShouldRejectAddressSprayingManyUsernames() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.acquire("user" + i + "@test.com", "10.0.0.9");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("user9@test.com", "10.0.0.9"));
+        assertEquals(1.0, rejected("address"));
+        loginThrottle.acquire("user9@test.com", "10.0.0.10");
+    }
+
+    @Test
+    void acquire_ShouldNotCountTheAddress_WhenTheUsernameIsRefused() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquire("locked@test.com", "10.0.0.11");
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("locked@test.com", "10.0.0.11"));
+        }
+
+        // Three admitted attempts so far, so the address still has two of its five.
+        loginThrottle.acquire("other1@test.com", "10.0.0.11");
+        loginThrottle.acquire("other2@test.com", "10.0.0.11");
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.acquire("other3@test.com", "10.0.0.11"));
+    }
+
+    @Test
+    void checkAddress_ShouldRefuseWithoutCounting_OnceTheAddressIsAtItsLimit() {
+        loginThrottle.checkAddress("10.0.0.12");
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.acquire("user" + i + "@test.com", "10.0.0.12");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.checkAddress("10.0.0.12"));
+        assertEquals(1.0, rejected("address"));
+        loginThrottle.checkAddress("10.0.0.13");
+    }
+
+    @Test
+    void acquire_ShouldAllowEverything_WhenDisabled() {
+        properties.getLoginThrottle().setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.acquire("reader@test.com", "10.0.0.1");
+        }
+
+        assertEquals(0.0, rejected("username") + rejected("address"));
+    }
+
+    private double rejected(String key) {
+        return meterRegistry.get("library.login.throttled").tag("key", key).counter().count();
+    }
+}
@@ -1,55 +1,67 @@
 package com.exam.library_management.service;
 
+import com.exam.library_management.dto.BorrowRecordResponse;
+import com.exam.library_management.dto.MonthlyReport;
 import com.exam.library_management.dto.UserActivitySummary;
-import com.exam.library_management.entity.Book;
-import com.exam.library_management.entity.BorrowRecord;
-import com.exam.library_management.entity.User;
 import com.exam.library_management.repository.BorrowRecordRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MonthlyReportServiceTest {
 
+    @Mock
+    private ReportService reportService;
+
     @Mock
     private BorrowRecordRepository borrowRepo;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     private MonthlyReportService monthlyReportService;
 
     @BeforeEach
     void setUp() {
         monthlyReportService = new MonthlyReportService(
+                reportService,
                 borrowRepo,
+                transactionTemplate,
                 "0 59 23 L * ?"
         );
+
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> callback = invocation.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     @Test
-    void generateMonthlyReport_shouldCallAllRepositoryMethods() {
-    
-        // Create nested objects to avoid NullPointerException
-        Book book = new Book();
-        book.setTitle("Spring Boot");
-    
-        User user = new User();
-        user.setEmail("user@test.com");
-    
-        BorrowRecord record = new BorrowRecord();
-        record.setBook(book);
-        record.setUser(user);
-        record.setLateFee(BigDecimal.TEN);
-    
+    void generateMonthlyReport_shouldLogTheStoredReport_AndStreamOverdueLoans() {
+
+        BorrowRecordResponse overdue = new BorrowRecordResponse(
+                1L, 2L, "user@test.com", 3L, "BK-3", "Spring Boot",
+                LocalDate.now().minusDays(30), LocalDate.now().minusDays(16), null, BigDecimal.TEN);
+
         UserActivitySummary summary =
                 new UserActivitySummary(
                         1L,
@@ -57,80 +69,66 @@ class MonthlyReportServiceTest {
                         2L,
                         1L
                 );
-            
-        when(borrowRepo.findByBorrowDateBetween(any(), any()))
-                .thenReturn(List.of(record));
-            
-        when(borrowRepo.findByReturnDateBetween(any(), any()))
-                .thenReturn(List.of(record));
-            
-        when(borrowRepo.findOverdueBooks(any()))
-                .thenReturn(List.of(record));
-            
-        when(borrowRepo.getUserActivitySummary(any(), any()))
-                .thenReturn(List.of(summary));
-            
+
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(reportService.getReport(any()))
+                .thenReturn(report(List.of(summary)));
+
+        when(borrowRepo.streamOverdue(any()))
+                .thenReturn(Stream.of(overdue).onClose(() -> closed.set(true)));
+
         // Act
         monthlyReportService.generateMonthlyReport();
-            
+
         // Verify
-        verify(borrowRepo).findByBorrowDateBetween(any(), any());
-        verify(borrowRepo).findByReturnDateBetween(any(), any());
-        verify(borrowRepo).findOverdueBooks(any());
-        verify(borrowRepo).getUserActivitySummary(any(), any());
+        verify(reportService).getReport(any());
+        verify(borrowRepo).streamOverdue(any());
         verifyNoMoreInteractions(borrowRepo);
+        // The cursor is released once the overdue section is written.
+        assertTrue(closed.get());
     }
 
 
     @Test
     void generateMonthlyReport_shouldHandleEmptyData() {
 
-        when(borrowRepo.findByBorrowDateBetween(any(), any()))
-                .thenReturn(List.of());
-
-        when(borrowRepo.findByReturnDateBetween(any(), any()))
-                .thenReturn(List.of());
-
-        when(borrowRepo.findOverdueBooks(any()))
-                .thenReturn(List.of());
+        when(reportService.getReport(any()))
+                .thenReturn(report(List.of()));
 
-        when(borrowRepo.getUserActivitySummary(any(), any()))
-                .thenReturn(List.of());
+        when(borrowRepo.streamOverdue(any()))
+                .thenReturn(Stream.empty());
 
         monthlyReportService.generateMonthlyReport();
 
-        verify(borrowRepo).findByBorrowDateBetween(any(), any());
-        verify(borrowRepo).findByReturnDateBetween(any(), any());
-        verify(borrowRepo).findOverdueBooks(any());
-        verify(borrowRepo).getUserActivitySummary(any(), any());
+        verify(reportService).getReport(any());
+        verify(borrowRepo).streamOverdue(any());
         verifyNoMoreInteractions(borrowRepo);
     }
 
     @Test
-    void generateMonthlyReport_shouldPassPreviousMonthDateRange() {
+    void generateMonthlyReport_shouldReportPreviousMonth() {
 
         YearMonth previousMonth = YearMonth.now().minusMonths(1);
-        LocalDate expectedStart = previousMonth.atDay(1);
         LocalDate expectedEnd = previousMonth.atEndOfMonth();
 
-        when(borrowRepo.findByBorrowDateBetween(any(), any()))
-                .thenReturn(List.of());
+        when(reportService.getReport(previousMonth))
+                .thenReturn(report(List.of()));
 
-        when(borrowRepo.findByReturnDateBetween(any(), any()))
-                .thenReturn(List.of());
-
-        when(borrowRepo.findOverdueBooks(any()))
-                .thenReturn(List.of());
-
-        when(borrowRepo.getUserActivitySummary(any(), any()))
-                .thenReturn(List.of());
+        when(borrowRepo.streamOverdue(any()))
+                .thenReturn(Stream.empty());
 
         monthlyReportService.generateMonthlyReport();
 
-        verify(borrowRepo).findByBorrowDateBetween(expectedStart, expectedEnd);
-        verify(borrowRepo).findByReturnDateBetween(expectedStart, expectedEnd);
-        verify(borrowRepo).getUserActivitySummary(expectedStart, expectedEnd);
-        verify(borrowRepo).findOverdueBooks(expectedEnd);
+        verify(reportService).getReport(previousMonth);
+        // Overdue as of the month's last day, the same cut-off the stored report counts with.
+        verify(borrowRepo).streamOverdue(expectedEnd);
+        verify(transactionTemplate).executeWithoutResult(any());
         verifyNoMoreInteractions(borrowRepo);
     }
+
+    private static MonthlyReport report(List<UserActivitySummary> userActivity) {
+        return new MonthlyReport(
+                YearMonth.now().minusMonths(1), 2, 1, 1, userActivity, LocalDateTime.now());
+    }
 }
@@ -0,0 +1,151 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.config.LibraryProperties;
+import com.exam.library_management.dto.ReportBackfillStatus;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportBackfillServiceTest {
+
+    private static final YearMonth FROM = YearMonth.of(2021, 1);
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private MonthlyActivityService monthlyActivityService;
+
+    private LibraryProperties properties;
+    private ReportBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LibraryProperties();
+        properties.getReportBackfill().setWorkers(3);
+        properties.getReportBackfill().setMaxMonths(24);
+        backfillService = new ReportBackfillService(reportService, monthlyActivityService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backfillService.destroy();
+    }
+
+    /* ==========================
+       RUNNING A BACKFILL
+       ========================== */
+
+    @Test
+    void start_ShouldBuildEveryMonth_AndReportProgress() throws Exception {
+        YearMonth to = FROM.plusMonths(11);
+
+        ReportBackfillStatus started = backfillService.start(FROM, to, true);
+
+        assertEquals(12, started.getTotalMonths());
+        ReportBackfillStatus finished = awaitFinished();
+        assertEquals(12, finished.getCompletedMonths());
+        assertEquals(List.of(), finished.getFailedMonths());
+        assertEquals(started.getId(), finished.getId());
+        for (YearMonth month = FROM; !month.isAfter(to); month = month.plusMonths(1)) {
+            verify(monthlyActivityService).rebuild(month);
+            verify(reportService).getReport(month);
+        }
+    }
+
+    @Test
+    void start_ShouldNeverRunMoreMonthsThanWorkers() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(reportService.getReport(any())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return null;
+        });
+
+        backfillService.start(FROM, FROM.plusMonths(11), false);
+
+        assertEquals(12, awaitFinished().getCompletedMonths());
+        assertTrue(peak.get() <= 3, "peak concurrency " + peak.get());
+        verifyNoInteractions(monthlyActivityService);
+    }
+
+    @Test
+    void start_ShouldRecordFailedMonths_AndCarryOn() throws Exception {
+        lenient().when(reportService.getReport(FROM.plusMonths(1)))
+                .thenThrow(new IllegalStateException("lock wait timeout"));
+
+        backfillService.start(FROM, FROM.plusMonths(2), false);
+
+        ReportBackfillStatus finished = awaitFinished();
+        assertEquals(2, finished.getCompletedMonths());
+        assertEquals(List.of("2021-02: lock wait timeout"), finished.getFailedMonths());
+    }
+
+    @Test
+    void start_ShouldRejectSecondBackfill_WhileOneRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.getReport(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        backfillService.start(FROM, FROM, false);
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> backfillService.start(FROM, FROM, false));
+
+        assertEquals("A report backfill is already running", ex.getMessage());
+        release.countDown();
+        awaitFinished();
+        assertNotNull(backfillService.start(FROM, FROM, false));
+    }
+
+    /* ==========================
+       VALIDATION
+       ========================== */
+
+    @Test
+    void start_ShouldRejectRangesThatAreNotClosedMonths() {
+        assertEquals("Only months that have ended can be backfilled", assertThrows(BadRequestException.class,
+                () -> backfillService.start(FROM, YearMonth.now(), false)).getMessage());
+        assertEquals("from must not be after to", assertThrows(BadRequestException.class,
+                () -> backfillService.start(FROM.plusMonths(1), FROM, false)).getMessage());
+        assertEquals("A backfill may cover at most 24 months", assertThrows(BadRequestException.class,
+                () -> backfillService.start(FROM, FROM.plusMonths(24), false)).getMessage());
+        verifyNoInteractions(reportService);
+    }
+
+    @Test
+    void status_ShouldThrowNotFound_BeforeAnyBackfill() {
+        assertThrows(ResourceNotFoundException.class, () -> backfillService.status());
+    }
+
+    private ReportBackfillStatus awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ReportBackfillStatus status = backfillService.status();
+            if (status.getFinishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("backfill did not finish");
+    }
+}
@@ -0,0 +1,182 @@
+package com.exam.library_management.service;
+
+import com.exam.library_management.dto.ActivityTotals;
+import com.exam.library_management.dto.MonthlyReport;
+import com.exam.library_management.dto.UserActivitySummary;
+import com.exam.library_management.entity.MonthlyReportSnapshot;
+import com.exam.library_management.entity.ReportedUserActivity;
+import com.exam.library_management.exception.BadRequestException;
+import com.exam.library_management.repository.BorrowRecordRepository;
+import com.exam.library_management.repository.MonthlyReportSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportServiceTest {
+
+    @Mock
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Mock
+    private MonthlyActivityService monthlyActivityService;
+
+    @Mock
+    private MonthlyReportSnapshotRepository snapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        reportService = new ReportService(
+                borrowRecordRepository, monthlyActivityService, snapshotRepository, transactionManager);
+    }
+
+    /* ==========================
+       CLOSED MONTHS
+       ========================== */
+
+    @Test
+    void getReport_ShouldServeStoredSnapshot_WithoutRecounting() {
+        YearMonth month = YearMonth.now().minusMonths(2);
+        MonthlyReportSnapshot snapshot = new MonthlyReportSnapshot();
+        snapshot.setReportMonth(month.atDay(1));
+        snapshot.setBorrowedCount(7);
+        snapshot.setReturnedCount(5);
+        snapshot.setOverdueCount(1);
+        snapshot.setGeneratedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        snapshot.getUserActivity().add(new ReportedUserActivity(3L, "user@test.com", 7, 5));
+        when(snapshotRepository.findByReportMonth(month.atDay(1))).thenReturn(Optional.of(snapshot));
+
+        MonthlyReport report = reportService.getReport(month);
+
+        assertEquals(month, report.getMonth());
+        assertEquals(7, report.getBooksBorrowed());
+        assertEquals(1, report.getOverdueBooks());
+        assertEquals("user@test.com", report.getUserActivity().get(0).getEmail());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), report.getGeneratedAt());
+        verifyNoInteractions(borrowRecordRepository, monthlyActivityService);
+    }
+
+    @Test
+    void getReport_ShouldComputeClosedMonthFromTheRollup_AndStoreIt() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        when(snapshotRepository.findByReportMonth(start)).thenReturn(Optional.empty());
+        when(monthlyActivityService.totals(month, month)).thenReturn(new ActivityTotals(4, 3, BigDecimal.ZERO));
+        when(monthlyActivityService.userActivity(month, month))
+                .thenReturn(List.of(new UserActivitySummary(3L, "user@test.com", 4, 3)));
+        when(borrowRecordRepository.countOverdueAsOf(end)).thenReturn(2L);
+
+        MonthlyReport report = reportService.getReport(month);
+
+        assertEquals(4, report.getBooksBorrowed());
+        assertEquals(3, report.getBooksReturned());
+        assertEquals(2, report.getOverdueBooks());
+        ArgumentCaptor<MonthlyReportSnapshot> stored = ArgumentCaptor.forClass(MonthlyReportSnapshot.class);
+        verify(snapshotRepository).saveAndFlush(stored.capture());
+        assertEquals(start, stored.getValue().getReportMonth());
+        assertEquals(2, stored.getValue().getOverdueCount());
+        assertEquals(3L, stored.getValue().getUserActivity().get(0).getUserId());
+        verify(borrowRecordRepository).countOverdueAsOf(end);
+        verifyNoMoreInteractions(borrowRecordRepository);
+    }
+
+    @Test
+    void getReport_ShouldReadLoansForEverySection_WhenTheRollupHasNoRowsForTheMonth() {
+        YearMonth month = YearMonth.now().minusMonths(30);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        when(snapshotRepository.findByReportMonth(start)).thenReturn(Optional.empty());
+        when(monthlyActivityService.totals(month, month)).thenReturn(new ActivityTotals(0, 0, BigDecimal.ZERO));
+        when(borrowRecordRepository.existsByBorrowDateBetween(start, end)).thenReturn(true);
+        when(borrowRecordRepository.countByBorrowDateBetween(start, end)).thenReturn(4L);
+        when(borrowRecordRepository.countByReturnDateBetween(start, end)).thenReturn(3L);
+        when(borrowRecordRepository.getUserActivitySummary(start, end))
+                .thenReturn(List.of(new UserActivitySummary(3L, "user@test.com", 4, 3)));
+
+        MonthlyReport report = reportService.getReport(month);
+
+        assertEquals(4, report.getBooksBorrowed());
+        assertEquals(3, report.getBooksReturned());
+        assertEquals(4, report.getUserActivity().get(0).getBorrowedCount());
+        verify(monthlyActivityService, never()).userActivity(any(), any());
+    }
+
+    @Test
+    void getReport_ShouldKeepTheRollup_ForAMonthWithoutLoans() {
+        YearMonth month = YearMonth.now().minusMonths(2);
+        when(snapshotRepository.findByReportMonth(month.atDay(1))).thenReturn(Optional.empty());
+        when(monthlyActivityService.totals(month, month)).thenReturn(new ActivityTotals(0, 0, BigDecimal.ZERO));
+        when(monthlyActivityService.userActivity(month, month)).thenReturn(List.of());
+
+        MonthlyReport report = reportService.getReport(month);
+
+        assertEquals(0, report.getBooksBorrowed());
+        verify(borrowRecordRepository, never()).getUserActivitySummary(any(), any());
+    }
+
+    @Test
+    void getReport_ShouldServeWinningSnapshot_WhenStoredConcurrently() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        MonthlyReportSnapshot winner = new MonthlyReportSnapshot();
+        winner.setReportMonth(month.atDay(1));
+        winner.setBorrowedCount(9);
+        when(snapshotRepository.findByReportMonth(month.atDay(1)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(snapshotRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("insert failed",
+                new SQLIntegrityConstraintViolationException("Duplicate entry for key 'monthly_report_snapshots."
+                        + MonthlyReportSnapshot.REPORT_MONTH_KEY + "'")));
+
+        assertEquals(9, reportService.getReport(month).getBooksBorrowed());
+    }
+
+    /* ==========================
+       CURRENT AND FUTURE MONTHS
+       ========================== */
+
+    @Test
+    void getReport_ShouldComputeCurrentMonthLive_WithoutStoringIt() {
+        YearMonth month = YearMonth.now();
+        LocalDate today = LocalDate.now();
+        when(monthlyActivityService.totals(month, month)).thenReturn(new ActivityTotals(2, 0, BigDecimal.ZERO));
+        when(monthlyActivityService.userActivity(month, month)).thenReturn(List.of());
+
+        MonthlyReport report = reportService.getReport(month);
+
+        assertEquals(2, report.getBooksBorrowed());
+        verify(borrowRecordRepository).countOverdueAsOf(today);
+        verifyNoInteractions(snapshotRepository);
+    }
+
+    @Test
+    void getReport_ShouldRejectFutureMonth() {
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> reportService.getReport(YearMonth.now().plusMonths(1)));
+
+        assertEquals("Reports are not available for future months", ex.getMessage());
+        verifyNoInteractions(borrowRecordRepository, snapshotRepository);
+    }
+}
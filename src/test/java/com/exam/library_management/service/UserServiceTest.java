@@ -3,6 +3,7 @@ package com.exam.library_management.service;
 import com.exam.library_management.dto.UserResponse;
 import com.exam.library_management.entity.User;
 import com.exam.library_management.enums.Role;
+import com.exam.library_management.event.UserChangedEvent;
 import com.exam.library_management.exception.DuplicateResourceException;
 import com.exam.library_management.repository.UserRepository;
 
@@ -15,6 +16,7 @@ import org.mockito.Mock;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -30,6 +32,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -75,6 +80,11 @@ class UserServiceTest {
         assertEquals("encodedPassword", persisted.getPassword());
         assertEquals(Role.USER, persisted.getRole());
         assertNotNull(persisted.getCreatedAt());
+
+        ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(email, event.getValue().getEmail());
+        assertEquals(libraryId, event.getValue().getLibraryId());
     }
 
     // =====================================================